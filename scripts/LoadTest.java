@@ -0,0 +1,169 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator for the product API.
+ * <p>
+ * Seeds 200 products, then each of {@code concurrency} clients keeps exactly one request in flight: 70%
+ * product reads, 20% updates and 10% creates. After a 5 second warm-up, throughput and latency
+ * percentiles are measured and printed as one JSON object, so runs can be compared.
+ * <pre>
+ * java scripts/LoadTest.java [baseUrl] [concurrency] [durationSeconds] [label]
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String label = args.length > 3 ? args[3] : "run";
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        List<String> productIds = seed(client, baseUrl, 200);
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(durationSeconds).toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> new Worker(client, baseUrl, productIds).run(warmupEnd, end)));
+        }
+
+        long requests = 0;
+        long errors = 0;
+        int latencyCount = 0;
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<Worker> result : results) {
+            Worker worker = result.get();
+            requests += worker.count;
+            errors += worker.errors;
+            latencies.add(Arrays.copyOf(worker.latencies, worker.count));
+            latencyCount += worker.count;
+        }
+        clients.shutdown();
+
+        long[] all = new long[latencyCount];
+        int offset = 0;
+        for (long[] chunk : latencies) {
+            System.arraycopy(chunk, 0, all, offset, chunk.length);
+            offset += chunk.length;
+        }
+        Arrays.sort(all);
+
+        System.out.printf(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"durationSeconds\":%d,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughputPerSecond\":%.1f,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                label, concurrency, durationSeconds, requests, errors, (double) requests / durationSeconds,
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+        System.exit(0);
+    }
+
+    private static List<String> seed(HttpClient client, String baseUrl, int count) throws Exception {
+        List<String> productIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(create(baseUrl), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            int start = response.body().indexOf("\"productId\":\"") + 13;
+            productIds.add(response.body().substring(start, start + 36));
+        }
+        return productIds;
+    }
+
+    private static HttpRequest create(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/products"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(productJson()))
+                .build();
+    }
+
+    private static String productJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"name\":\"Load Test Product " + UUID.randomUUID() + "\",\"description\":\"Created by the load test\","
+                + "\"category\":\"LoadTest\",\"price\":" + (random.nextInt(10_000) + 1) / 100.0
+                + ",\"availableStock\":" + random.nextInt(1000) + "}";
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+
+    private static final class Worker {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final List<String> productIds;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(HttpClient client, String baseUrl, List<String> productIds) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.productIds = productIds;
+        }
+
+        Worker run(long warmupEnd, long end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                String productId = productIds.get(random.nextInt(productIds.size()));
+                int operation = random.nextInt(10);
+                HttpRequest request;
+                if (operation < 7) {
+                    request = HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + productId)).GET().build();
+                } else if (operation < 9) {
+                    request = HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + productId))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(productJson()))
+                            .build();
+                } else {
+                    request = create(baseUrl);
+                }
+
+                boolean failed;
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    // 409 is a lost optimistic-locking race, an expected outcome under contention
+                    failed = status >= 500;
+                } catch (Exception e) {
+                    failed = true;
+                }
+                long latency = System.nanoTime() - now;
+                if (now < warmupEnd) {
+                    continue;
+                }
+                if (failed) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latency;
+            }
+            return this;
+        }
+    }
+}
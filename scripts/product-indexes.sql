@@ -0,0 +1,10 @@
+-- Indexes backing GET /products filters, sort keys and keyset pagination.
+-- Hibernate creates these on fresh schemas from the @Table definition on Product; run this script
+-- against existing large databases so the indexes are built without blocking writes.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_last_updated_id ON products (last_updated, product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_price_id ON products (price, product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_id ON products (name, product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_last_updated_id ON products (category, last_updated, product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_price_id ON products (category, price, product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_name_id ON products (category, name, product_id);
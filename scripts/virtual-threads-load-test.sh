@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Compare platform-thread and virtual-thread request handling under the same closed-loop load.
+# Requires Java 21+ and a running PostgreSQL (see application.properties).
+#
+# Usage: ./scripts/virtual-threads-load-test.sh [concurrency] [durationSeconds]
+
+set -e
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-30}
+PORT=8080
+RESULTS=target/load-test-results.ndjson
+
+cd "$(dirname "$0")/.."
+./mvnw -q -DskipTests package
+JAR=$(ls target/product-catalog-*.jar | grep -v original | head -1)
+rm -f "$RESULTS"
+
+run() {
+    local label=$1
+    local virtual=$2
+
+    echo "Starting application with spring.threads.virtual.enabled=$virtual..."
+    java -jar "$JAR" --server.port=$PORT --spring.threads.virtual.enabled="$virtual" > "target/load-test-$label.log" 2>&1 &
+    local pid=$!
+
+    for _ in $(seq 1 60); do
+        if curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; then
+            break
+        fi
+        sleep 1
+    done
+
+    java scripts/LoadTest.java "http://localhost:$PORT" "$CONCURRENCY" "$DURATION" "$label" | tee -a "$RESULTS"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+run platform-threads false
+run virtual-threads true
+
+echo "Results written to $RESULTS"
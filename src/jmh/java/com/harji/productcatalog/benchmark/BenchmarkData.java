@@ -0,0 +1,56 @@
+package com.harji.productcatalog.benchmark;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative fixtures shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 4, 23, 12, 0, 0, 123_456_000);
+
+    private BenchmarkData() {
+    }
+
+    public static Product product() {
+        return Product.builder()
+                .productId(UUID.fromString("3f2b8c1e-9a4d-4f6b-8e2a-1c5d7b9e0f12"))
+                .name("Wireless Noise Cancelling Headphones")
+                .description("Over-ear Bluetooth headphones with active noise cancellation and a 30 hour battery life")
+                .category("Electronics")
+                .price(new BigDecimal("249.99"))
+                .availableStock(1250)
+                .createdAt(TIMESTAMP)
+                .lastUpdated(TIMESTAMP)
+                .version(7L)
+                .build();
+    }
+
+    public static ProductDTO productDTO() {
+        Product product = product();
+        return ProductDTO.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .availableStock(product.getAvailableStock())
+                .lastUpdated(product.getLastUpdated())
+                .build();
+    }
+
+    public static ProductEventDTO productEvent() {
+        return ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(TIMESTAMP)
+                .product(productDTO())
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.harji.productcatalog.benchmark;
+
+import com.harji.productcatalog.config.EventPublisherConfig;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.EventPublisherService;
+import com.harji.productcatalog.service.impl.DefaultEventPublisherService;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing through the default {@link EventPublisherService}, one event at a time and as an outbox batch.
+ * Logging is held at WARN by {@code logback-test.xml}, so this measures event assembly and serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPublishBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private EventPublisherService publisher;
+    private ProductDTO productDTO;
+    private List<ProductEventDTO> batch;
+
+    @Setup
+    public void setUp() {
+        DefaultEventPublisherService defaultPublisher =
+                new DefaultEventPublisherService(new JsonEventSerializer(new EventPublisherConfig().objectMapper()));
+        ReflectionTestUtils.setField(defaultPublisher, "eventTopic", "product-events");
+        publisher = defaultPublisher;
+
+        productDTO = BenchmarkData.productDTO();
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkData.productEvent());
+        }
+    }
+
+    @Benchmark
+    public void publishProductEvent() {
+        publisher.publishProductEvent(ProductEventType.PRODUCT_UPDATED, productDTO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishProductEvents() {
+        publisher.publishProductEvents(batch);
+    }
+}
@@ -0,0 +1,73 @@
+package com.harji.productcatalog.benchmark;
+
+import com.harji.productcatalog.config.EventPublisherConfig;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.EventSerializer;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import com.harji.productcatalog.service.impl.ProtobufEventSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against protobuf event encoding: time per encode and decode. The payload size of each encoding is reported
+ * as the {@code payloadBytes} secondary result of {@link #serialize}.
+ * Run with {@code -Djmh.args="EventSerializerBenchmark -prof gc"} to compare allocation per event as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializerBenchmark {
+
+    @Param({"json", "protobuf"})
+    private String format;
+
+    private EventSerializer serializer;
+    private ProductEventDTO event;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        serializer = "protobuf".equals(format)
+                ? new ProtobufEventSerializer()
+                : new JsonEventSerializer(new EventPublisherConfig().objectMapper());
+        event = BenchmarkData.productEvent();
+        payload = serializer.serialize(event);
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) {
+        byte[] bytes = serializer.serialize(event);
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ProductEventDTO deserialize() {
+        return serializer.deserialize(payload);
+    }
+
+    /**
+     * Set rather than accumulated, so each iteration reports the size of one payload.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.harji.productcatalog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.config.EventPublisherConfig;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the API and event payloads, using the application's ObjectMapper configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ProductDTO productDTO;
+    private ProductEventDTO productEvent;
+    private byte[] productJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new EventPublisherConfig().objectMapper();
+        productDTO = BenchmarkData.productDTO();
+        productEvent = BenchmarkData.productEvent();
+        productJson = objectMapper.writeValueAsBytes(productDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeProductDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(productDTO);
+    }
+
+    @Benchmark
+    public String serializeProductEventDTO() throws Exception {
+        return objectMapper.writeValueAsString(productEvent);
+    }
+
+    @Benchmark
+    public ProductDTO deserializeProductDTO() throws Exception {
+        return objectMapper.readValue(productJson, ProductDTO.class);
+    }
+}
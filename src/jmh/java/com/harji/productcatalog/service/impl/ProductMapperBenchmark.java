@@ -0,0 +1,48 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.benchmark.BenchmarkData;
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping done for every product read and write in {@link ProductServiceImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private Product product;
+    private ProductDTO productDTO;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product();
+        productDTO = BenchmarkData.productDTO();
+    }
+
+    @Benchmark
+    public ProductDTO mapToDTO() {
+        return ProductMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public Product mapToEntity() {
+        return ProductMapper.toEntity(productDTO);
+    }
+}
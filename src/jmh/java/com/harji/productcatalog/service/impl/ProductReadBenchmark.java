@@ -0,0 +1,118 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.ProductCatalogApplication;
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.repository.ProductSpecifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product reads as loaded entities mapped by {@link ProductMapper} against DTOs built by the query, each in a
+ * read-only transaction as {@link ProductServiceImpl} runs them. Needs the PostgreSQL database of the test profile;
+ * add {@code -prof gc} to {@code jmh.args} to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductReadBenchmark {
+
+    private static final int CATALOG_SIZE = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID productId;
+    private Specification<Product> specification;
+    private Sort sort;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCatalogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("app.outbox.relay.enabled=false", "spring.jpa.show-sql=false")
+                .run();
+        productRepository = context.getBean(ProductRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Product> products = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            products.add(Product.builder()
+                    .name("Benchmark Product " + i)
+                    .description("Over-ear Bluetooth headphones with active noise cancellation, variant " + i)
+                    .category("Electronics")
+                    .price(new BigDecimal("249.99"))
+                    .availableStock(i)
+                    .build());
+        }
+        productId = productRepository.saveAll(products).get(CATALOG_SIZE / 2).getProductId();
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        specification = ProductSpecifications.matching(criteria);
+        sort = ProductSpecifications.sortBy(criteria);
+    }
+
+    @TearDown
+    public void tearDown() {
+        productRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO findByIdAsEntity() {
+        return readOnlyTransaction.execute(status ->
+                ProductMapper.toDTO(productRepository.findById(productId).orElseThrow()));
+    }
+
+    @Benchmark
+    public ProductDTO findByIdAsDTO() {
+        return readOnlyTransaction.execute(status ->
+                productRepository.findVersionedProductById(productId).orElseThrow().product());
+    }
+
+    @Benchmark
+    public List<ProductDTO> findPageAsEntities() {
+        return readOnlyTransaction.execute(status -> productRepository.findBy(specification, query -> query
+                        .sortBy(sort)
+                        .limit(PAGE_SIZE)
+                        .all())
+                .stream()
+                .map(ProductMapper::toDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductDTO> findPageAsDTOs() {
+        return readOnlyTransaction.execute(status -> productRepository.findProductDTOs(specification, sort, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,129 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over a 1M product index, against the 5 ms p99 target for {@code GET /products/search}. Sample mode
+ * reports the percentiles.
+ * <p>
+ * Words are built from shared syllables, so short prefixes expand to many terms, and drawn with a Zipf distribution,
+ * so the most common words appear in a large share of products. {@code query} picks the shape of the search:
+ * <ul>
+ *     <li>{@code prefix2}, {@code prefix3}: type-ahead on the first letters of the most common word</li>
+ *     <li>{@code commonWord}: the most common word, complete</li>
+ *     <li>{@code twoWords}: a common word followed by a prefix of a less common one</li>
+ *     <li>{@code rareWord}: a word found in few products</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "ta", "vo", "zi", "pe", "su", "do", "fa", "gi", "ho", "ju", "be",
+            "co", "ra", "ti", "wa"
+    };
+    private static final String[] CATEGORIES = {
+            "Electronics", "Computers", "Accessories", "Kitchen", "Lighting", "Garden", "Toys", "Books",
+            "Sports", "Office", "Audio", "Cameras"
+    };
+
+    @Param({"1000000"})
+    public int products;
+
+    @Param({"prefix2", "prefix3", "commonWord", "twoWords", "rareWord"})
+    public String query;
+
+    private ProductSearchIndex index;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(random, 20_000);
+        double[] cumulative = zipf(vocabulary.length);
+        index = new ProductSearchIndex(64, 0.5);
+        LocalDateTime lastUpdated = LocalDateTime.of(2025, 4, 23, 12, 0);
+        for (int i = 0; i < products; i++) {
+            index.index(ProductDTO.builder()
+                    .productId(new UUID(i, i))
+                    .name(words(random, vocabulary, cumulative, 3))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .description(words(random, vocabulary, cumulative, 12))
+                    .lastUpdated(lastUpdated)
+                    .build());
+        }
+        text = switch (query) {
+            case "prefix2" -> vocabulary[0].substring(0, 2);
+            case "prefix3" -> vocabulary[0].substring(0, 3);
+            case "commonWord" -> vocabulary[0];
+            case "twoWords" -> vocabulary[1] + " " + vocabulary[50].substring(0, 3);
+            case "rareWord" -> vocabulary[10_000];
+            default -> throw new IllegalArgumentException("Unknown query shape: " + query);
+        };
+    }
+
+    @Benchmark
+    public List<ProductSearchHitDTO> search() {
+        return index.search(text, 20);
+    }
+
+    private static String[] vocabulary(Random random, int size) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            // Keeps every word distinct while sharing prefixes
+            words[i] = word.append(Integer.toString(i, 36)).toString();
+        }
+        return words;
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static String words(Random random, String[] vocabulary, double[] cumulative, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(vocabulary[rank >= 0 ? rank : Math.min(-rank - 1, vocabulary.length - 1)]).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -1,12 +1,60 @@
 package com.harji.productcatalog;
 
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.dto.ProductImportResultDTO;
+import com.harji.productcatalog.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
 
 @SpringBootApplication
 public class ProductCatalogApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogApplication.class);
+
+    /**
+     * {@code --import=<file>} loads a .csv, .ndjson or .jsonl catalog file and exits instead of serving requests.
+     */
+    static final String IMPORT_OPTION = "import";
+
     public static void main(String[] args) {
-        SpringApplication.run(ProductCatalogApplication.class, args);
+        SpringApplication application = new SpringApplication(ProductCatalogApplication.class);
+        if (Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + IMPORT_OPTION + "="))) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+            // Nothing is searched during an import, so the index would only hold the whole catalog in memory
+            application.setDefaultProperties(Map.of("app.search.enabled", "false"));
+            System.exit(SpringApplication.exit(application.run(args)));
+        }
+        application.run(args);
+    }
+
+    @Bean
+    ApplicationRunner productImportRunner(ProductService productService) {
+        return args -> {
+            if (!args.containsOption(IMPORT_OPTION)) {
+                return;
+            }
+            for (String file : args.getOptionValues(IMPORT_OPTION)) {
+                Path path = Path.of(file);
+                ProductImportResultDTO result;
+                try (InputStream input = Files.newInputStream(path)) {
+                    result = productService.importProducts(input, ProductFileFormat.fromFileName(file));
+                }
+                log.info("Imported {}: {} created, {} updated, {} unchanged, {} rejected", path,
+                        result.getCreated(), result.getUpdated(), result.getUnchanged(), result.getRejected());
+                result.getRejections().forEach(rejection ->
+                        log.warn("Rejected line {} of {}: {}", rejection.getLine(), path, rejection.getErrors()));
+            }
+        };
     }
 }
@@ -0,0 +1,37 @@
+package com.harji.productcatalog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process cache of product DTOs and their row versions, keyed by product ID.
+ * Statistics are recorded so the actuator exposes cache.gets, cache.puts and cache.evictions metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.products.maximum-size:10000}") long maximumSize,
+                                     @Value("${app.cache.products.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUCTS_CACHE);
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        caffeineCacheManager.setAllowNullValues(false);
+        // Defer evictions until the transaction commits. Writes cache their product after commit themselves, comparing
+        // versions on the Caffeine map, so a rollback never leaves a phantom entry either
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -5,10 +5,16 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.harji.productcatalog.service.EventPublisherService;
 import com.harji.productcatalog.service.impl.MockPubSubEventPublisherService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 public class EventPublisherConfig {
@@ -23,6 +29,20 @@ public class EventPublisherConfig {
         return objectMapper;
     }
 
+    /**
+     * Threads for the async publisher queues: virtual when {@code spring.threads.virtual.enabled} is set on
+     * Java 21+, daemon platform threads otherwise.
+     */
+    @Bean
+    public ThreadFactory eventPublisherThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("product-event-publisher-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-event-publisher-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
     // No need to define this bean as DefaultEventPublisherService is already annotated with @Primary
 
     @Bean
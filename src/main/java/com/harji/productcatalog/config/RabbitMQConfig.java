@@ -1,20 +1,33 @@
 package com.harji.productcatalog.config;
 
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 /**
  * Configuration for RabbitMQ.
- * In a real implementation, this would configure the RabbitMQ client.
+ * Connections are opened lazily by the publisher, so the application starts without a reachable broker.
  */
 @Configuration
 @Profile("rabbitmq")
 public class RabbitMQConfig {
-    /**
-     *  You could add beans for RabbitMQ connection factory, template, etc.
-     * No specific configuration needed for the mock implementation
-     *  This is a placeholder for actual RabbitMQ configuration
-     *  In a real implementation, this would configure the RabbitMQ client
-     */
 
+    @Bean
+    public ConnectionFactory rabbitConnectionFactory(
+            @Value("${spring.rabbitmq.host:localhost}") String host,
+            @Value("${spring.rabbitmq.port:5672}") int port,
+            @Value("${spring.rabbitmq.username:guest}") String username,
+            @Value("${spring.rabbitmq.password:guest}") String password,
+            @Value("${spring.rabbitmq.virtual-host:/}") String virtualHost) {
+        ConnectionFactory connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(host);
+        connectionFactory.setPort(port);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        connectionFactory.setVirtualHost(virtualHost);
+        connectionFactory.setAutomaticRecoveryEnabled(true);
+        return connectionFactory;
+    }
 }
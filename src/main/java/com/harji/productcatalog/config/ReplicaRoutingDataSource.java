@@ -0,0 +1,199 @@
+package com.harji.productcatalog.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * <p>
+ * Replicas are used round-robin, skipping any that failed the last health check, answered it with more than
+ * {@code maxLagMs} of replication lag, or failed to hand out a connection since. A read falls back to the primary
+ * when no replica is usable or when {@link ReplicaStalenessGuard} says the client wrote too recently. Must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager only
+ * marks a transaction read-only after it has begun, so the physical connection has to be taken lazily.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY_LSN_QUERY = "SELECT CAST(pg_current_wal_lsn() AS text)";
+
+    // A standby is current if it is streaming and has replayed everything it received, or has replayed up to the
+    // primary's position, however long ago the last commit was. A disconnected standby receives nothing, so it is
+    // otherwise as far behind as its last replayed commit.
+    static final String REPLICATION_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0 " +
+            "WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0 " +
+            "ELSE COALESCE(CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT), " +
+            Long.MAX_VALUE + ") " +
+            "END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final long maxLagMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<DataSource> replicas,
+                                    ReplicaStalenessGuard stalenessGuard,
+                                    MeterRegistry meterRegistry,
+                                    long maxLagMs,
+                                    long healthCheckIntervalMs) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.stalenessGuard = stalenessGuard;
+        this.maxLagMs = maxLagMs;
+        this.primaryConnections = Counter.builder("product.datasource.connections")
+                .description("Connections handed out, by the database they were taken from")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("product.datasource.connections")
+                .description("Connections handed out, by the database they were taken from")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        Gauge.builder("product.datasource.replicas.healthy", this.replicas,
+                        all -> all.stream().filter(replica -> replica.healthy).count())
+                .description("Replicas currently in rotation for read-only transactions")
+                .register(meterRegistry);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Replicas stay out of rotation until their first check has passed
+        if (healthCheckIntervalMs > 0) {
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.update(false, e.getMessage());
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are routed with the configured credentials only");
+    }
+
+    /**
+     * Measures the replication lag of every replica and puts it in or out of rotation accordingly.
+     */
+    public void checkReplicas() {
+        String primaryLsn = primaryLsn();
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(REPLICATION_LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    long lagMs = resultSet.getLong(1);
+                    replica.update(lagMs <= maxLagMs, "replication lag " + lagMs + " ms");
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Without the primary's position, only a streaming replica can be judged current
+    private String primaryLsn() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Failed to read the primary's WAL position: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || stalenessGuard.isPrimaryRequired()) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void update(boolean healthy, String detail) {
+            if (healthy && !this.healthy) {
+                log.info("Read replica {} is in rotation ({})", name, detail);
+            } else if (!healthy && this.healthy) {
+                log.warn("Read replica {} is out of rotation, reads go to the primary: {}", name, detail);
+            }
+            this.healthy = healthy;
+        }
+    }
+}
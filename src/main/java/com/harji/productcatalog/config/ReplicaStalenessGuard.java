@@ -0,0 +1,126 @@
+package com.harji.productcatalog.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Keeps a client's read-only transactions on the primary for {@code app.datasource.replica.read-after-write-ms}
+ * after that client commits a product write, so it is not served its own data by a replica that has not replayed
+ * the write yet. Other clients keep reading from the replicas.
+ * <p>
+ * The commit time travels with the client in the {@value #COOKIE_NAME} cookie, so the window holds whichever instance
+ * serves the next request. Writes made outside an HTTP request, such as the hot stock flush, have no client to pin.
+ * Replicas lagging further than {@code app.datasource.replica.max-lag-ms} are taken out of rotation by
+ * {@link ReplicaRoutingDataSource} itself.
+ */
+@Component
+public class ReplicaStalenessGuard {
+
+    static final String COOKIE_NAME = "catalog-last-write";
+
+    private static final String WRITTEN_ATTRIBUTE = ReplicaStalenessGuard.class.getName() + ".written";
+
+    private final long windowMs;
+
+    public ReplicaStalenessGuard(@Value("${app.datasource.replica.read-after-write-ms:1000}") long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Opens the current client's window once the current transaction commits, or now when there is none. Called for
+     * every product written, but registers only once per transaction.
+     */
+    public void recordWrite() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (windowMs <= 0 || attributes == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markWritten(attributes);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markWritten(attributes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaStalenessGuard.this);
+            }
+        });
+    }
+
+    /**
+     * Whether the client of the current request committed a write within the window, in this request or an
+     * earlier one.
+     */
+    public boolean isPrimaryRequired() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (windowMs <= 0 || attributes == null) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(WRITTEN_ATTRIBUTE) instanceof Long written) {
+            return isWithinWindow(written);
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return isWithinWindow(Long.parseLong(cookie.getValue()));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void markWritten(ServletRequestAttributes attributes) {
+        long now = System.currentTimeMillis();
+        boolean first = attributes.getRequest().getAttribute(WRITTEN_ATTRIBUTE) == null;
+        attributes.getRequest().setAttribute(WRITTEN_ATTRIBUTE, now);
+        HttpServletResponse response = attributes.getResponse();
+        // One cookie per response is enough, however many transactions the request commits
+        if (first && response != null && !response.isCommitted()) {
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(now))
+                    .path("/")
+                    .maxAge(Duration.ofSeconds((windowMs + 999) / 1000))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+    }
+
+    // Either direction, so clock skew between instances cannot pin a client to the primary for long
+    private boolean isWithinWindow(long written) {
+        return Math.abs(System.currentTimeMillis() - written) < windowMs;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes : null;
+    }
+}
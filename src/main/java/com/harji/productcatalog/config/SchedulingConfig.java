@@ -0,0 +1,13 @@
+package com.harji.productcatalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs such as the outbox relay. The scheduler has a thread per job
+ * ({@code spring.task.scheduling.pool.size}), as the relay can run for as long as a backlog lasts.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
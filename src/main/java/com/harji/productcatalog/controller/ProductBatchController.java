@@ -0,0 +1,125 @@
+package com.harji.productcatalog.controller;
+
+import com.harji.productcatalog.dto.BatchResultDTO;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.dto.ProductImportResultDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk variants of the product write endpoints, and whole-catalog import and export. Items are validated
+ * individually, so one bad item is reported in the response instead of rejecting the whole request.
+ */
+@RestController
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Product API", description = "API for managing products")
+public class ProductBatchController {
+
+    static final int MAX_BATCH_SIZE = 10000;
+
+    static final String EXPORT_CONTENT_TYPE = "application/gzip";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final ProductService productService;
+
+    @PostMapping("/products:batch")
+    @Operation(summary = "Create products in bulk",
+            description = "Creates up to " + MAX_BATCH_SIZE + " products and publishes a PRODUCT_CREATED event for each one created")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    public ResponseEntity<BatchResultDTO> createProducts(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<ProductDTO> productDTOs) {
+        return ResponseEntity.ok(productService.createProducts(productDTOs));
+    }
+
+    @PutMapping("/products:batch")
+    @Operation(summary = "Update products in bulk",
+            description = "Updates up to " + MAX_BATCH_SIZE + " products by productId and publishes a PRODUCT_UPDATED event for each one updated")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    public ResponseEntity<BatchResultDTO> updateProducts(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<ProductDTO> productDTOs) {
+        return ResponseEntity.ok(productService.updateProducts(productDTOs));
+    }
+
+    /**
+     * The body is read as a stream while it is imported, so a file of any size can be uploaded.
+     */
+    @PostMapping(value = "/products:import",
+            consumes = {ProductFileFormat.CSV_CONTENT_TYPE, ProductFileFormat.NDJSON_CONTENT_TYPE})
+    @Operation(summary = "Import a product catalog",
+            description = "Streams a CSV or NDJSON file of products into the catalog, creating new products and updating existing ones by productId, and publishes a PRODUCT_CREATED or PRODUCT_UPDATED event for each one written")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File imported; see counts and rejected records"),
+            @ApiResponse(responseCode = "400", description = "CSV header is missing required columns")
+    })
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        return ResponseEntity.ok(productService.importProducts(body, ProductFileFormat.fromContentType(contentType)));
+    }
+
+    /**
+     * Written on the request thread rather than as a {@code StreamingResponseBody}, whose async request timeout
+     * would cut a large export off partway through.
+     */
+    @GetMapping("/products:export")
+    @Operation(summary = "Export the product catalog",
+            description = "Streams the products matching the optional filters as a gzip-compressed NDJSON or CSV file, oldest update first, in the format the import accepts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Compressed export file"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format or invalid filter")
+    })
+    public void exportProducts(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            HttpServletResponse response) throws IOException {
+        ProductFileFormat fileFormat = ProductFileFormat.fromName(format);
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .category(category)
+                .updatedSince(updatedSince)
+                .build();
+
+        response.setContentType(EXPORT_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("products." + fileFormat.getExtension() + ".gz")
+                .build()
+                .toString());
+        GZIPOutputStream output = new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
+        productService.exportProducts(criteria, fileFormat, output);
+        output.finish();
+    }
+}
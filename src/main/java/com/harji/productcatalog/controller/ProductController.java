@@ -1,6 +1,22 @@
 package com.harji.productcatalog.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.harji.productcatalog.dto.ProductChangesDTO;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductPageDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.exception.InvalidRequestException;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+import com.harji.productcatalog.dto.StockChangeRequestDTO;
+import com.harji.productcatalog.dto.StockLevelDTO;
+import com.harji.productcatalog.service.ProductChangeFeedService;
+import com.harji.productcatalog.service.ProductEventStreamService;
+import com.harji.productcatalog.service.ProductSearchService;
 import com.harji.productcatalog.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,22 +24,58 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
+@Validated
 @Tag(name = "Product API", description = "API for managing products")
 public class ProductController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    static final int MAX_CHANGES_WAIT_SECONDS = 30;
+
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("name", "description", "category", "price", "availableStock");
+
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final ProductChangeFeedService productChangeFeedService;
+    private final ProductEventStreamService productEventStreamService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product and publishes a PRODUCT_CREATED event")
@@ -50,23 +102,225 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update a product",
+            description = "Applies a JSON Merge Patch (RFC 7396) with a single targeted UPDATE of the supplied fields. "
+                    + "Only supplied fields are validated; a null removes the optional description. Publishes a "
+                    + "PRODUCT_UPDATED event listing the changed fields, or nothing if the patch changes nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product patched; the body is its new state"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid or read-only field in the patch")
+    })
+    public ResponseEntity<ProductDTO> patchProduct(
+            @PathVariable("id") UUID productId,
+            @RequestBody JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new InvalidRequestException("A merge patch must be a JSON object");
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new InvalidRequestException("Field '" + field + "' cannot be patched");
+            }
+            fields.add(field);
+        });
+
+        ProductDTO changes;
+        try {
+            changes = objectMapper.treeToValue(patch, ProductDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<ProductDTO>> violations = new LinkedHashSet<>();
+        for (String field : fields) {
+            violations.addAll(validator.validateProperty(changes, field));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        return ResponseEntity.ok(productService.patchProduct(productId, changes, fields));
+    }
+
+    @PostMapping("/{id}/stock/reserve")
+    @Operation(summary = "Reserve stock", description = "Atomically decrements available stock and publishes a PRODUCT_STOCK_CHANGED event")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock reserved"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock available")
+    })
+    public ResponseEntity<StockLevelDTO> reserveStock(
+            @PathVariable("id") UUID productId,
+            @Valid @RequestBody StockChangeRequestDTO request) {
+        return ResponseEntity.ok(productService.reserveStock(productId, request.getQuantity()));
+    }
+
+    @PostMapping("/{id}/stock/release")
+    @Operation(summary = "Release stock", description = "Atomically increments available stock and publishes a PRODUCT_STOCK_CHANGED event")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock released"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<StockLevelDTO> releaseStock(
+            @PathVariable("id") UUID productId,
+            @Valid @RequestBody StockChangeRequestDTO request) {
+        return ResponseEntity.ok(productService.releaseStock(productId, request.getQuantity()));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a product by ID", description = "Returns a product by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found",
                     content = @Content(schema = @Schema(implementation = ProductDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Product unchanged since the supplied ETag or date"),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable("id") UUID productId) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable("id") UUID productId, WebRequest webRequest) {
+        // Revalidate against the product's version alone so a 304 never loads or serializes the product
+        if (ProductETags.isConditional(webRequest)) {
+            Optional<LocalDateTime> lastUpdated = productService.getProductLastUpdated(productId);
+            if (lastUpdated.isPresent() && webRequest.checkNotModified(
+                    ProductETags.forProduct(productId, lastUpdated.get()),
+                    ProductETags.toEpochMillis(lastUpdated.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+
         ProductDTO product = productService.getProductById(productId);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forProduct(product.getProductId(), product.getLastUpdated()))
+                .lastModified(ProductETags.toEpochMillis(product.getLastUpdated()))
+                .body(product);
     }
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Returns a list of all products")
-    @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Search products",
+            description = "Returns up to 'limit' products matching the optional filters, ordered by 'sort' "
+                    + "(lastUpdated, price or name, optionally followed by ',asc' or ',desc'). The cursor for the "
+                    + "next page, if any, is returned in the " + NEXT_CURSOR_HEADER + " header")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of products retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "No product has changed since the supplied ETag or date"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, sort, cursor or limit")
+    })
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "minPrice", required = false) @PositiveOrZero BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) @PositiveOrZero BigDecimal maxPrice,
+            @RequestParam(value = "minStock", required = false) @Min(0) Integer minStock,
+            @RequestParam(value = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit,
+            WebRequest webRequest) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .category(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minStock(minStock)
+                .updatedSince(updatedSince)
+                .build()
+                .withSort(sort);
+
+        // Read the catalog version before the page so the ETag can only be older than the content it labels.
+        // There is no Last-Modified: update times are not in commit order, so If-Modified-Since could miss a change.
+        String catalogVersion = productService.getCatalogVersion();
+        String eTag = ProductETags.forCollection(webRequest.getParameterMap(), catalogVersion);
+        if (ProductETags.isConditional(webRequest) && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        ProductPageDTO page = productService.getProducts(criteria, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getProducts());
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Products changed since a cursor",
+            description = "Returns up to 'limit' products created or updated after the 'since' cursor, oldest change "
+                    + "first, with the cursor to pass next time. Without 'since' the feed starts from the beginning. "
+                    + "With 'wait' > 0 an empty result is held for up to that many seconds until a change arrives")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changed products and the next cursor"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or wait")
+    })
+    public DeferredResult<ResponseEntity<ProductChangesDTO>> getProductChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestParam(value = "wait", defaultValue = "0") @Min(0) @Max(MAX_CHANGES_WAIT_SECONDS) int waitSeconds) {
+        Duration wait = Duration.ofSeconds(waitSeconds);
+        // Our own timeout completes the result first; the request timeout is only a backstop
+        DeferredResult<ResponseEntity<ProductChangesDTO>> result =
+                new DeferredResult<>(wait.plusSeconds(10).toMillis());
+        productChangeFeedService.awaitChanges(since, limit, wait).whenComplete((changes, error) -> {
+            if (error != null) {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                result.setResult(ResponseEntity.ok(changes));
+            }
+        });
+        return result;
+    }
+
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live product events",
+            description = "Server-Sent Events stream of product events as they are published, optionally only for "
+                    + "products in one category. Subscribers that fall too far behind are disconnected and should "
+                    + "reconnect, using GET /products/changes to catch up on what they missed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Subscriber limit reached")
+    })
+    public SseEmitter streamProductEvents(@RequestParam(value = "category", required = false) String category) {
+        return productEventStreamService.subscribe(category);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products by keyword",
+            description = "Full-text search over name, category and description. All words must match; "
+                    + "the last word also matches as a prefix for type-ahead")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked search hits"),
+            @ApiResponse(responseCode = "400", description = "Missing query or invalid limit")
+    })
+    public ResponseEntity<List<ProductSearchHitDTO>> searchProducts(
+            @RequestParam("q") @NotBlank String query,
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(productSearchService.search(query, limit));
+    }
+
+    /**
+     * Written on the request thread rather than as a {@code StreamingResponseBody}, whose async request timeout
+     * would cut a large catalog off partway through.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all products",
+            description = "Streams the whole catalog as newline-delimited JSON without buffering it in memory")
+    @ApiResponse(responseCode = "200", description = "Products streamed successfully")
+    public void streamAllProducts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        // Flushing after every product would push each line through to the client as its own write
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        productService.streamAllProducts(product -> {
+            try {
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
     }
 }
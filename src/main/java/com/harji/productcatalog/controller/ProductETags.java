@@ -0,0 +1,56 @@
+package com.harji.productcatalog.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Validators for conditional product requests. Timestamps are truncated to the microsecond
+ * precision PostgreSQL stores, so a freshly written entity and the same row read back from the
+ * database produce the same ETag.
+ */
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String forProduct(UUID productId, LocalDateTime lastUpdated) {
+        return "\"" + productId + "." + Long.toHexString(toEpochMicros(lastUpdated)) + "\"";
+    }
+
+    /**
+     * A collection ETag changes whenever the catalog version moves on or the query parameters differ.
+     * Parameters are sorted so their order in the URL does not matter.
+     */
+    static String forCollection(Map<String, String[]> parameters, String catalogVersion) {
+        StringBuilder source = new StringBuilder();
+        new TreeMap<>(parameters).forEach((name, values) ->
+                source.append(name).append('=').append(String.join(",", values)).append('&'));
+        source.append('@').append(catalogVersion == null ? "" : catalogVersion);
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? 0L : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return 0L;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), timestamp.truncatedTo(ChronoUnit.MICROS));
+    }
+}
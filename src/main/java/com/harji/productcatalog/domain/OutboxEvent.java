@@ -0,0 +1,64 @@
+package com.harji.productcatalog.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Product event waiting to be handed to the event publisher. Rows are written in the same
+ * transaction as the product change and removed by the relay once published.
+ */
+@Entity
+@Table(name = "product_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_outbox_seq")
+    @SequenceGenerator(name = "product_outbox_seq", sequenceName = "product_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ProductEventType eventType;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Comma-separated names of the fields carried by a delta event; null when the payload is the full product.
+     */
+    @Column(length = 128)
+    private String changedFields;
+
+    /**
+     * Product version after the change, for delta events.
+     */
+    private Long productVersion;
+
+    /**
+     * Category of the product after the change, used to route the event to category subscribers.
+     */
+    private String category;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Set while a relay is publishing the event; other relays skip the row until the lease expires.
+     */
+    private LocalDateTime claimedUntil;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,7 +14,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_last_updated_id", columnList = "last_updated, productId"),
+        @Index(name = "idx_products_price_id", columnList = "price, productId"),
+        @Index(name = "idx_products_name_id", columnList = "name, productId"),
+        @Index(name = "idx_products_category_last_updated_id", columnList = "category, last_updated, productId"),
+        @Index(name = "idx_products_category_price_id", columnList = "category, price, productId"),
+        @Index(name = "idx_products_category_name_id", columnList = "category, name, productId")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -45,4 +53,9 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
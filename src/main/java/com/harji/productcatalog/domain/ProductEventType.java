@@ -2,5 +2,6 @@ package com.harji.productcatalog.domain;
 
 public enum ProductEventType {
     PRODUCT_CREATED,
-    PRODUCT_UPDATED
+    PRODUCT_UPDATED,
+    PRODUCT_STOCK_CHANGED
 }
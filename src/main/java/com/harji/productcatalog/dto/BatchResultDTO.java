@@ -0,0 +1,19 @@
+package com.harji.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> results;
+}
@@ -0,0 +1,30 @@
+package com.harji.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDTO {
+
+    /**
+     * Products created or updated after the requested cursor, in the state of their latest change.
+     */
+    private List<ProductDTO> products;
+
+    /**
+     * Cursor to pass as {@code since} on the next call. Always present, even when no product changed.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether the page was full, so more changes may be fetched right away.
+     */
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package com.harji.productcatalog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.harji.productcatalog.domain.ProductEventType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,9 +8,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * A product event. Full-state events carry the whole product. Delta events ({@code PRODUCT_UPDATED} with
+ * {@code changedFields} set) carry the product id, last update time and the listed fields only; a listed
+ * field that is absent was cleared. {@code version} increases with every change to the product.
+ */
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductEventDTO {
@@ -17,4 +25,6 @@ public class ProductEventDTO {
     private ProductEventType eventType;
     private LocalDateTime timestamp;
     private ProductDTO product;
+    private List<String> changedFields;
+    private Long version;
 }
@@ -0,0 +1,76 @@
+package com.harji.productcatalog.dto;
+
+import com.harji.productcatalog.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats of catalog imports and exports.
+ */
+public enum ProductFileFormat {
+
+    /**
+     * Comma-separated values with a header row naming the {@link ProductDTO} fields, quoted as in RFC 4180.
+     */
+    CSV("csv"),
+
+    /**
+     * One {@link ProductDTO} JSON object per line.
+     */
+    NDJSON("ndjson");
+
+    public static final String CSV_CONTENT_TYPE = "text/csv";
+    public static final String NDJSON_CONTENT_TYPE = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final String extension;
+
+    ProductFileFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * The file extension, without the dot, that {@link #fromFileName} reads as this format.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * The format named by a request parameter, {@code csv} or {@code ndjson} in any case.
+     */
+    public static ProductFileFormat fromName(String name) {
+        for (ProductFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported format: " + name + ", expected csv or ndjson");
+    }
+
+    public static ProductFileFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(CSV_CONTENT_TYPE))) {
+            return CSV;
+        }
+        if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new InvalidRequestException("Unsupported content type: " + contentType);
+    }
+
+    /**
+     * The format named by a file extension: {@code .csv}, or {@code .ndjson} or {@code .jsonl}.
+     */
+    public static ProductFileFormat fromFileName(String fileName) {
+        String lowerCase = fileName.toLowerCase(Locale.ROOT);
+        if (lowerCase.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lowerCase.endsWith(".ndjson") || lowerCase.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the import format of " + fileName
+                + ", expected a .csv, .ndjson or .jsonl file");
+    }
+}
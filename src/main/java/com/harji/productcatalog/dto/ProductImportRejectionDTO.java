@@ -0,0 +1,25 @@
+package com.harji.productcatalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportRejectionDTO {
+
+    /**
+     * Line of the import file on which the rejected record starts, counting from 1.
+     */
+    private long line;
+    private UUID productId;
+    private List<String> errors;
+}
@@ -0,0 +1,34 @@
+package com.harji.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+
+    /**
+     * Records read from the file, excluding the CSV header and blank lines.
+     */
+    private long records;
+    private long created;
+    private long updated;
+
+    /**
+     * Records that wrote nothing: they matched the stored product, or a later record for the same product
+     * in the same chunk replaced them.
+     */
+    private long unchanged;
+    private long rejected;
+
+    /**
+     * The first rejected records, up to {@code app.products.import.max-reported-rejections}.
+     */
+    private List<ProductImportRejectionDTO> rejections;
+}
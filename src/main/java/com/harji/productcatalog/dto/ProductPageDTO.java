@@ -0,0 +1,22 @@
+package com.harji.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDTO {
+
+    private List<ProductDTO> products;
+
+    /**
+     * Opaque cursor to pass back to fetch the following page, or {@code null} when this is the last page.
+     */
+    private String nextCursor;
+}
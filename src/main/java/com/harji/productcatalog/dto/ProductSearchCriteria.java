@@ -0,0 +1,82 @@
+package com.harji.productcatalog.dto;
+
+import com.harji.productcatalog.exception.InvalidRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filters and ordering for product listings. Every sort key has a matching (key, productId)
+ * index on the products table so pages can be served by an index range scan.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCriteria {
+
+    public enum SortKey {
+        LAST_UPDATED("lastUpdated"),
+        PRICE("price"),
+        NAME("name");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        static SortKey fromProperty(String property) {
+            for (SortKey sortKey : values()) {
+                if (sortKey.property.equalsIgnoreCase(property)) {
+                    return sortKey;
+                }
+            }
+            throw new InvalidRequestException("Unsupported sort key: " + property);
+        }
+    }
+
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minStock;
+    private LocalDateTime updatedSince;
+
+    @Builder.Default
+    private SortKey sortKey = SortKey.LAST_UPDATED;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    /**
+     * Applies a sort expression of the form {@code property[,asc|desc]}, e.g. {@code price,desc}.
+     */
+    public ProductSearchCriteria withSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return this;
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2) {
+            throw new InvalidRequestException("Invalid sort expression: " + sort);
+        }
+        sortKey = SortKey.fromProperty(parts[0].trim());
+        if (parts.length == 2) {
+            try {
+                direction = Sort.Direction.fromString(parts[1].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Invalid sort direction: " + parts[1]);
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,20 @@
+package com.harji.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchHitDTO {
+
+    private UUID productId;
+    private String name;
+    private String category;
+    private float score;
+}
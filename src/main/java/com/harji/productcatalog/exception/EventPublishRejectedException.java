@@ -0,0 +1,8 @@
+package com.harji.productcatalog.exception;
+
+public class EventPublishRejectedException extends RuntimeException {
+
+    public EventPublishRejectedException(String message) {
+        super(message);
+    }
+}
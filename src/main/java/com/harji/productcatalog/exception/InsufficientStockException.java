@@ -0,0 +1,8 @@
+package com.harji.productcatalog.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
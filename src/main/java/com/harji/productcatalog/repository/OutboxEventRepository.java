@@ -0,0 +1,38 @@
+package com.harji.productcatalog.repository;
+
+import com.harji.productcatalog.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Leases the oldest unclaimed events for {@code leaseMs} and commits straight away, so no row lock is held
+     * while the events are published. Rows leased by another relay are skipped until their lease expires.
+     * Rows are returned in no particular order.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE product_outbox SET claimed_until = now() + CAST(:leaseMs AS bigint) * interval '1 millisecond'
+            WHERE id IN (SELECT id FROM product_outbox
+                         WHERE claimed_until IS NULL OR claimed_until < now()
+                         ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<OutboxEvent> claimNextBatch(@Param("limit") int limit, @Param("leaseMs") long leaseMs);
+
+    /**
+     * Ends the lease on events that were not published, so the next batch picks them up again.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = null WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,27 @@
+package com.harji.productcatalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product row read by the change feed, with the id of the transaction that last wrote it.
+ */
+public interface ProductChange {
+
+    UUID getProductId();
+
+    String getName();
+
+    String getDescription();
+
+    String getCategory();
+
+    BigDecimal getPrice();
+
+    Integer getAvailableStock();
+
+    LocalDateTime getLastUpdated();
+
+    String getChangeXid();
+}
@@ -0,0 +1,91 @@
+package com.harji.productcatalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row returned by the import merge statement: a product it inserted, or one it updated together with the columns
+ * that changed. Read straight from the result set rather than through a projection proxy, as an import returns
+ * thousands of these per chunk.
+ */
+public record ProductImportResult(UUID productId,
+                                  String name,
+                                  String description,
+                                  String category,
+                                  BigDecimal price,
+                                  Integer availableStock,
+                                  Long version,
+                                  LocalDateTime lastUpdated,
+                                  boolean created,
+                                  boolean nameChanged,
+                                  boolean descriptionChanged,
+                                  boolean categoryChanged,
+                                  boolean priceChanged,
+                                  boolean availableStockChanged) implements ProductPatchResult {
+
+    @Override
+    public UUID getProductId() {
+        return productId;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getCategory() {
+        return category;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    @Override
+    public Integer getAvailableStock() {
+        return availableStock;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    @Override
+    public boolean getNameChanged() {
+        return nameChanged;
+    }
+
+    @Override
+    public boolean getDescriptionChanged() {
+        return descriptionChanged;
+    }
+
+    @Override
+    public boolean getCategoryChanged() {
+        return categoryChanged;
+    }
+
+    @Override
+    public boolean getPriceChanged() {
+        return priceChanged;
+    }
+
+    @Override
+    public boolean getAvailableStockChanged() {
+        return availableStockChanged;
+    }
+}
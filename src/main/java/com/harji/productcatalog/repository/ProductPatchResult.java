@@ -0,0 +1,37 @@
+package com.harji.productcatalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row returned by the merge patch statement: the product after the patch and which columns it changed.
+ */
+public interface ProductPatchResult {
+
+    UUID getProductId();
+
+    String getName();
+
+    String getDescription();
+
+    String getCategory();
+
+    BigDecimal getPrice();
+
+    Integer getAvailableStock();
+
+    Long getVersion();
+
+    LocalDateTime getLastUpdated();
+
+    boolean getNameChanged();
+
+    boolean getDescriptionChanged();
+
+    boolean getCategoryChanged();
+
+    boolean getPriceChanged();
+
+    boolean getAvailableStockChanged();
+}
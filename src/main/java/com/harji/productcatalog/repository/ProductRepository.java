@@ -1,11 +1,151 @@
 package com.harji.productcatalog.repository;
 
 import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    /**
+     * Read-only like {@code findById}, so outside a write transaction it may be answered by a read replica.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT p.lastUpdated FROM Product p WHERE p.productId = :productId")
+    Optional<LocalDateTime> findLastUpdatedById(@Param("productId") UUID productId);
+
+    /**
+     * Atomically takes stock if enough is available. Returns empty when the product is missing or short of stock.
+     */
+    @Query(value = "UPDATE products " +
+            "SET available_stock = available_stock - :quantity, version = version + 1, last_updated = :now " +
+            "WHERE product_id = :productId AND available_stock >= :quantity " +
+            "RETURNING product_id AS \"productId\", available_stock AS \"availableStock\", " +
+            "version AS \"version\", last_updated AS \"lastUpdated\"",
+            nativeQuery = true)
+    Optional<StockLevel> reserveStock(@Param("productId") UUID productId,
+                                      @Param("quantity") int quantity,
+                                      @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically returns stock. Returns empty when the product is missing.
+     */
+    @Query(value = "UPDATE products " +
+            "SET available_stock = available_stock + :quantity, version = version + 1, last_updated = :now " +
+            "WHERE product_id = :productId " +
+            "RETURNING product_id AS \"productId\", available_stock AS \"availableStock\", " +
+            "version AS \"version\", last_updated AS \"lastUpdated\"",
+            nativeQuery = true)
+    Optional<StockLevel> releaseStock(@Param("productId") UUID productId,
+                                      @Param("quantity") int quantity,
+                                      @Param("now") LocalDateTime now);
+
+    /**
+     * Applies a merge patch in one statement, setting only the columns named in {@code fields}. Returns empty
+     * when the product is missing or none of those columns would change, in which case the row is not written.
+     * The row is read and locked in the same statement, so the result reports which columns really changed.
+     */
+    @Query(value = "UPDATE products p SET " +
+            "name = CASE WHEN :#{#fields.contains('name')} THEN CAST(:#{#changes.name} AS VARCHAR) ELSE p.name END, " +
+            "description = CASE WHEN :#{#fields.contains('description')} " +
+            "THEN CAST(:#{#changes.description} AS VARCHAR) ELSE p.description END, " +
+            "category = CASE WHEN :#{#fields.contains('category')} " +
+            "THEN CAST(:#{#changes.category} AS VARCHAR) ELSE p.category END, " +
+            "price = CASE WHEN :#{#fields.contains('price')} THEN CAST(:#{#changes.price} AS NUMERIC) ELSE p.price END, " +
+            "available_stock = CASE WHEN :#{#fields.contains('availableStock')} " +
+            "THEN CAST(:#{#changes.availableStock} AS INTEGER) ELSE p.available_stock END, " +
+            "version = p.version + 1, last_updated = :now " +
+            "FROM (SELECT * FROM products WHERE product_id = :productId FOR UPDATE) prev " +
+            "WHERE p.product_id = prev.product_id AND (" +
+            "(:#{#fields.contains('name')} AND p.name IS DISTINCT FROM CAST(:#{#changes.name} AS VARCHAR)) " +
+            "OR (:#{#fields.contains('description')} " +
+            "AND p.description IS DISTINCT FROM CAST(:#{#changes.description} AS VARCHAR)) " +
+            "OR (:#{#fields.contains('category')} " +
+            "AND p.category IS DISTINCT FROM CAST(:#{#changes.category} AS VARCHAR)) " +
+            "OR (:#{#fields.contains('price')} AND p.price IS DISTINCT FROM CAST(:#{#changes.price} AS NUMERIC)) " +
+            "OR (:#{#fields.contains('availableStock')} " +
+            "AND p.available_stock IS DISTINCT FROM CAST(:#{#changes.availableStock} AS INTEGER))) " +
+            "RETURNING p.product_id AS \"productId\", p.name AS \"name\", p.description AS \"description\", " +
+            "p.category AS \"category\", p.price AS \"price\", p.available_stock AS \"availableStock\", " +
+            "p.version AS \"version\", p.last_updated AS \"lastUpdated\", " +
+            "p.name IS DISTINCT FROM prev.name AS \"nameChanged\", " +
+            "p.description IS DISTINCT FROM prev.description AS \"descriptionChanged\", " +
+            "p.category IS DISTINCT FROM prev.category AS \"categoryChanged\", " +
+            "p.price IS DISTINCT FROM prev.price AS \"priceChanged\", " +
+            "p.available_stock IS DISTINCT FROM prev.available_stock AS \"availableStockChanged\"",
+            nativeQuery = true)
+    Optional<ProductPatchResult> patch(@Param("productId") UUID productId,
+                                       @Param("changes") ProductDTO changes,
+                                       @Param("fields") Set<String> fields,
+                                       @Param("now") LocalDateTime now);
+
+    /**
+     * Products last written after the (change_xid, product_id) position, in that order. Only rows written by
+     * transactions older than every transaction still running are returned, so a transaction that commits later
+     * can never land behind a position that has already been handed out.
+     */
+    @Query(value = "SELECT product_id AS \"productId\", name AS \"name\", description AS \"description\", " +
+            "category AS \"category\", price AS \"price\", available_stock AS \"availableStock\", " +
+            "last_updated AS \"lastUpdated\", CAST(change_xid AS TEXT) AS \"changeXid\" " +
+            "FROM products " +
+            "WHERE change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "AND (change_xid, product_id) > (CAST(:changeXid AS xid8), :productId) " +
+            "ORDER BY change_xid, product_id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<ProductChange> findChangesAfter(@Param("changeXid") String changeXid,
+                                         @Param("productId") UUID productId,
+                                         @Param("limit") int limit);
+
+    /**
+     * The last position {@link #findChangesAfter} can currently reach, as {@code change_xid:product_id}.
+     */
+    @Query(value = "SELECT CAST(change_xid AS TEXT) || ':' || CAST(product_id AS TEXT) FROM products " +
+            "WHERE change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY change_xid DESC, product_id DESC " +
+            "LIMIT 1",
+            nativeQuery = true)
+    Optional<String> findLatestChangePosition();
+
+    @Query("SELECT p.availableStock FROM Product p WHERE p.productId = :productId")
+    Optional<Integer> findAvailableStockById(@Param("productId") UUID productId);
+
+    /**
+     * Writes flushed hot stock. {@code lastUpdated} is when the counter last changed, which can be older than an update
+     * committed since, so the stored time only ever moves forward.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.availableStock = :stock, p.version = p.version + 1, " +
+            "p.lastUpdated = GREATEST(p.lastUpdated, :lastUpdated) " +
+            "WHERE p.productId = :productId")
+    int overwriteStock(@Param("productId") UUID productId,
+                       @Param("stock") int stock,
+                       @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    /**
+     * Every product as a DTO. Nothing is added to the persistence context, so memory stays flat however many rows
+     * are read.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.harji.productcatalog.dto.ProductDTO(p.productId, p.name, p.description, p.category, " +
+            "p.price, p.availableStock, p.lastUpdated) FROM Product p ORDER BY p.lastUpdated, p.productId")
+    Stream<ProductDTO> streamAllProductDTOs();
 }
@@ -0,0 +1,46 @@
+package com.harji.productcatalog.repository;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read queries that build {@link ProductDTO}s directly, so no entity is loaded into the persistence context.
+ * Implemented on the {@code EntityManager} rather than with {@code @Query}: a declared query method costs several
+ * times the allocation of the query itself on every call.
+ * <p>
+ * Also merges catalog imports, which need the JDBC connection of the current transaction for {@code COPY}.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * The product built as a DTO by the query, with its row version.
+     */
+    Optional<VersionedProduct> findVersionedProductById(UUID productId);
+
+    /**
+     * Up to {@code limit} products matching the specification in the given order, built as DTOs by the query.
+     */
+    List<ProductDTO> findProductDTOs(Specification<Product> specification, Sort sort, int limit);
+
+    /**
+     * Every product matching the specification in the given order, read from a database cursor
+     * {@code fetchSize} rows at a time. Must be called in a transaction, which the cursor lives in, and closed.
+     */
+    Stream<ProductDTO> streamProductDTOs(Specification<Product> specification, Sort sort, int fetchSize);
+
+    /**
+     * Upserts the products in the caller's transaction: they are loaded into a temporary staging table with
+     * {@code COPY} and merged into {@code products} with one statement. Every product must carry its id; when one
+     * appears more than once the last wins. Returns the products inserted, and those updated because a column
+     * differed, with the columns that changed.
+     */
+    List<ProductImportResult> mergeImport(List<ProductDTO> products, LocalDateTime now);
+}
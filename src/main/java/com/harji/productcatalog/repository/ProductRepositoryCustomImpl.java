@@ -0,0 +1,214 @@
+package com.harji.productcatalog.repository;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String FIND_VERSIONED_BY_ID =
+            "SELECT new com.harji.productcatalog.repository.VersionedProduct(p.productId, p.name, p.description, " +
+            "p.category, p.price, p.availableStock, p.lastUpdated, p.version) " +
+            "FROM Product p WHERE p.productId = :productId";
+
+    // Numbers use the column types of products, so staged values are rounded exactly as stored ones are
+    private static final String CREATE_IMPORT_STAGING = "CREATE TEMPORARY TABLE IF NOT EXISTS " +
+            "product_import_staging (seq INTEGER NOT NULL, product_id UUID NOT NULL, name TEXT, description TEXT, " +
+            "category TEXT, price NUMERIC(10, 2), available_stock INTEGER) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_IMPORT_STAGING = "COPY product_import_staging " +
+            "(seq, product_id, name, description, category, price, available_stock) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String LOCK_STAGED_PRODUCTS = "SELECT p.product_id FROM products p " +
+            "WHERE p.product_id IN (SELECT product_id FROM product_import_staging) ORDER BY p.product_id FOR UPDATE";
+
+    // The last staged row of a product wins. An existing product is written only when a column differs; it was
+    // locked by LOCK_STAGED_PRODUCTS before this statement took its snapshot, so prev holds the values replaced
+    private static final String MERGE_STAGED_IMPORT = "WITH staged AS (" +
+            "SELECT DISTINCT ON (product_id) product_id, name, description, category, price, available_stock " +
+            "FROM product_import_staging ORDER BY product_id, seq DESC), " +
+            "prev AS (SELECT p.product_id, p.name, p.description, p.category, p.price, p.available_stock " +
+            "FROM products p JOIN staged s ON s.product_id = p.product_id), " +
+            "merged AS (" +
+            "INSERT INTO products AS p (product_id, name, description, category, price, available_stock, " +
+            "created_at, last_updated, version) " +
+            "SELECT product_id, name, description, category, price, available_stock, ?, ?, 0 FROM staged " +
+            "ON CONFLICT (product_id) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, " +
+            "category = EXCLUDED.category, price = EXCLUDED.price, available_stock = EXCLUDED.available_stock, " +
+            "version = p.version + 1, last_updated = EXCLUDED.last_updated " +
+            "WHERE (p.name, p.description, p.category, p.price, p.available_stock) IS DISTINCT FROM " +
+            "(EXCLUDED.name, EXCLUDED.description, EXCLUDED.category, EXCLUDED.price, EXCLUDED.available_stock) " +
+            "RETURNING p.product_id, p.name, p.description, p.category, p.price, p.available_stock, p.version, " +
+            "p.last_updated) " +
+            "SELECT m.product_id, m.name, m.description, m.category, m.price, m.available_stock, m.version, " +
+            "m.last_updated, prev.product_id IS NULL, " +
+            "m.name IS DISTINCT FROM prev.name, " +
+            "m.description IS DISTINCT FROM prev.description, " +
+            "m.category IS DISTINCT FROM prev.category, " +
+            "m.price IS DISTINCT FROM prev.price, " +
+            "m.available_stock IS DISTINCT FROM prev.available_stock " +
+            "FROM merged m LEFT JOIN prev ON prev.product_id = m.product_id";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<VersionedProduct> findVersionedProductById(UUID productId) {
+        List<VersionedProduct> results = entityManager.createQuery(FIND_VERSIONED_BY_ID, VersionedProduct.class)
+                .setParameter("productId", productId)
+                .getResultList();
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> findProductDTOs(Specification<Product> specification, Sort sort, int limit) {
+        return createDTOQuery(specification, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<ProductDTO> streamProductDTOs(Specification<Product> specification, Sort sort, int fetchSize) {
+        return createDTOQuery(specification, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private TypedQuery<ProductDTO> createDTOQuery(Specification<Product> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductDTO> query = cb.createQuery(ProductDTO.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductDTO.class,
+                root.get("productId"),
+                root.get("name"),
+                root.get("description"),
+                root.get("category"),
+                root.get("price"),
+                root.get("availableStock"),
+                root.get("lastUpdated")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ProductImportResult> mergeImport(List<ProductDTO> products, LocalDateTime now) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_IMPORT_STAGING);
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_IMPORT_STAGING, COPY_BUFFER_SIZE),
+                    StandardCharsets.UTF_8))) {
+                for (int seq = 0; seq < products.size(); seq++) {
+                    writeStagingRow(writer, seq, products.get(seq));
+                }
+            } catch (IOException e) {
+                throw new SQLException("Failed to copy products into the import staging table", e);
+            }
+            // Locked in id order, so concurrent imports of overlapping catalogs cannot deadlock
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(LOCK_STAGED_PRODUCTS);
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_STAGED_IMPORT)) {
+                statement.setObject(1, now);
+                statement.setObject(2, now);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<ProductImportResult> results = new ArrayList<>(products.size());
+                    while (resultSet.next()) {
+                        results.add(toImportResult(resultSet));
+                    }
+                    return results;
+                }
+            }
+        });
+    }
+
+    private static ProductImportResult toImportResult(ResultSet resultSet) throws SQLException {
+        return new ProductImportResult(
+                resultSet.getObject(1, UUID.class),
+                resultSet.getString(2),
+                resultSet.getString(3),
+                resultSet.getString(4),
+                resultSet.getBigDecimal(5),
+                resultSet.getInt(6),
+                resultSet.getLong(7),
+                resultSet.getObject(8, LocalDateTime.class),
+                resultSet.getBoolean(9),
+                resultSet.getBoolean(10),
+                resultSet.getBoolean(11),
+                resultSet.getBoolean(12),
+                resultSet.getBoolean(13),
+                resultSet.getBoolean(14));
+    }
+
+    /**
+     * One CSV line for {@code COPY}. Text is always quoted, so an empty string stays distinct from an unquoted
+     * empty field, which {@code COPY} reads as null.
+     */
+    private static void writeStagingRow(Writer writer, int seq, ProductDTO product) throws IOException {
+        writer.write(Integer.toString(seq));
+        writer.write(',');
+        writer.write(product.getProductId().toString());
+        writer.write(',');
+        writeText(writer, product.getName());
+        writer.write(',');
+        writeText(writer, product.getDescription());
+        writer.write(',');
+        writeText(writer, product.getCategory());
+        writer.write(',');
+        writer.write(product.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(product.getAvailableStock().toString());
+        writer.write('\n');
+    }
+
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
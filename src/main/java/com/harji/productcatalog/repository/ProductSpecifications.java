@@ -0,0 +1,74 @@
+package com.harji.productcatalog.repository;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Query building blocks for product listings.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinStock() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("availableStock"), criteria.getMinStock()));
+            }
+            if (criteria.getUpdatedSince() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("lastUpdated"), criteria.getUpdatedSince()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Restricts to rows strictly after the given keyset position in the (property, productId) ordering.
+     * <p>
+     * The leading {@code property >= value} (or {@code <=}) is implied by the rest, but PostgreSQL cannot turn an OR
+     * into an index bound: without it the scan of the (property, productId) index starts at the first row and
+     * filters every row of the earlier pages.
+     */
+    public static <T extends Comparable<? super T>> Specification<Product> after(
+            String property, Sort.Direction direction, T value, UUID productId) {
+        return (root, query, cb) -> {
+            Path<T> sortPath = root.get(property);
+            Path<UUID> idPath = root.get("productId");
+            if (direction.isAscending()) {
+                return cb.and(
+                        cb.greaterThanOrEqualTo(sortPath, value),
+                        cb.or(
+                                cb.greaterThan(sortPath, value),
+                                cb.and(cb.equal(sortPath, value), cb.greaterThan(idPath, productId))));
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(sortPath, value),
+                    cb.or(
+                            cb.lessThan(sortPath, value),
+                            cb.and(cb.equal(sortPath, value), cb.lessThan(idPath, productId))));
+        };
+    }
+
+    public static Sort sortBy(ProductSearchCriteria criteria) {
+        return Sort.by(criteria.getDirection(), criteria.getSortKey().getProperty(), "productId");
+    }
+}
@@ -0,0 +1,18 @@
+package com.harji.productcatalog.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stock columns returned by the atomic stock adjustment statements.
+ */
+public interface StockLevel {
+
+    UUID getProductId();
+
+    Integer getAvailableStock();
+
+    Long getVersion();
+
+    LocalDateTime getLastUpdated();
+}
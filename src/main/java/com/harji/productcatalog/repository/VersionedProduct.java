@@ -0,0 +1,22 @@
+package com.harji.productcatalog.repository;
+
+import com.harji.productcatalog.dto.ProductDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product as a DTO together with the row version it was read or written at. Versions grow with every committed
+ * write to the row, so of two copies of a product the one with the higher version is the current one.
+ */
+public record VersionedProduct(ProductDTO product, long version) {
+
+    /**
+     * Used by the JPQL constructor expression that reads a product by ID.
+     */
+    public VersionedProduct(UUID productId, String name, String description, String category, BigDecimal price,
+                            Integer availableStock, LocalDateTime lastUpdated, Long version) {
+        this(new ProductDTO(productId, name, description, category, price, availableStock, lastUpdated), version);
+    }
+}
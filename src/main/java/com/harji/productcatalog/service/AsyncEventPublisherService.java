@@ -0,0 +1,22 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductEventDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking front for the active {@link EventPublisherService}.
+ */
+public interface AsyncEventPublisherService {
+
+    /**
+     * Queues the event for publishing. The returned future completes once the publisher has acknowledged
+     * the event, and completes exceptionally if it was rejected by the backpressure policy or failed to publish.
+     */
+    CompletableFuture<Void> publishProductEventAsync(ProductEventDTO event);
+
+    /**
+     * Number of events queued and not yet handed to the publisher.
+     */
+    int getQueueDepth();
+}
@@ -2,8 +2,34 @@ package com.harji.productcatalog.service;
 
 import com.harji.productcatalog.domain.ProductEventType;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface EventPublisherService {
 
-    void publishProductEvent(ProductEventType eventType, ProductDTO productDTO);
+    /**
+     * Short name of where this publisher sends events, used to tag publish metrics.
+     */
+    default String getName() {
+        return "default";
+    }
+
+    /**
+     * Publishes one full-state event for the product, stamped with the current time.
+     */
+    default void publishProductEvent(ProductEventType eventType, ProductDTO productDTO) {
+        publishProductEvents(List.of(ProductEventDTO.builder()
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .product(productDTO)
+                .build()));
+    }
+
+    /**
+     * Publishes a batch of events in order, each exactly as given, so delta events keep their
+     * {@code changedFields} and {@code version}.
+     */
+    void publishProductEvents(List<ProductEventDTO> events);
 }
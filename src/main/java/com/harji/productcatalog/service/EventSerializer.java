@@ -0,0 +1,16 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductEventDTO;
+
+/**
+ * Wire encoding of product events, selected with {@code app.event.serializer}.
+ * Publishers advertise {@link #getContentType()} on every message so consumers can pick the matching decoder.
+ */
+public interface EventSerializer {
+
+    String getContentType();
+
+    byte[] serialize(ProductEventDTO event);
+
+    ProductEventDTO deserialize(byte[] payload);
+}
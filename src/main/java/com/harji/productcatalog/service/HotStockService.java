@@ -0,0 +1,40 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.StockLevelDTO;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the stock of selected high-contention products in memory. For those products the in-memory
+ * counter is authoritative and the {@code products} table is brought up to date by {@link #flush()}.
+ */
+public interface HotStockService {
+
+    boolean isHot(UUID productId);
+
+    StockLevelDTO reserve(UUID productId, int quantity);
+
+    StockLevelDTO release(UUID productId, int quantity);
+
+    /**
+     * Returns the product with its stock and last update replaced by the live counter values.
+     */
+    ProductDTO withLiveStock(ProductDTO productDTO);
+
+    Optional<LocalDateTime> getLastChanged(UUID productId);
+
+    /**
+     * Replaces the live stock once the caller's transaction commits, e.g. after a full product update.
+     */
+    void reset(UUID productId, int stock);
+
+    /**
+     * Writes every counter changed since the previous flush to the database in one transaction.
+     *
+     * @return the number of products written
+     */
+    int flush();
+}
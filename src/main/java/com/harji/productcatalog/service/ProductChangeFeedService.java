@@ -0,0 +1,21 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductChangesDTO;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ProductChangeFeedService {
+
+    /**
+     * Returns up to {@code limit} products created or updated after {@code cursor}, oldest change first.
+     * Without a cursor the feed starts from the beginning, paging through the whole catalog once.
+     */
+    ProductChangesDTO getChanges(String cursor, int limit);
+
+    /**
+     * Like {@link #getChanges}, but when nothing has changed yet the result completes only once a change
+     * arrives or {@code timeout} passes, in which case it holds an empty page and the same cursor.
+     */
+    CompletableFuture<ProductChangesDTO> awaitChanges(String cursor, int limit, Duration timeout);
+}
@@ -0,0 +1,12 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductEventDTO;
+
+public interface ProductEventAuditService {
+
+    /**
+     * Records a product event in the audit log, subject to the sample rate of its event type. Returns without
+     * formatting anything when the event is not sampled or the audit logger is disabled.
+     */
+    void audit(ProductEventDTO event, String outcome);
+}
@@ -0,0 +1,27 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+
+import java.util.Set;
+
+public interface ProductEventOutboxService {
+
+    /**
+     * Stores the event in the caller's transaction so it is published only if the product change commits.
+     */
+    void record(ProductEventType eventType, ProductDTO productDTO);
+
+    /**
+     * Stores a {@code PRODUCT_UPDATED} delta event carrying only the changed fields, in the caller's transaction.
+     * {@code category} is the product's current category, which the delta itself holds only when it changed.
+     */
+    void recordChanges(ProductDTO changes, Set<String> changedFields, Long version, String category);
+
+    /**
+     * Publishes and removes up to one batch of pending events. Events that are not published stay in the outbox.
+     *
+     * @return the number of events relayed
+     */
+    int relayNextBatch();
+}
@@ -0,0 +1,24 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductEventDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ProductEventStreamService {
+
+    /**
+     * Opens a Server-Sent Events stream of the product events published from now on, limited to products in
+     * {@code category} when it is given.
+     *
+     * @throws com.harji.productcatalog.exception.SubscriberLimitExceededException when the instance already
+     *         serves the maximum number of subscribers
+     */
+    SseEmitter subscribe(String category);
+
+    /**
+     * Hands a published event to the matching subscribers without waiting for it to be written. The category
+     * of the product is passed separately because delta events carry it only when it changed.
+     */
+    void broadcast(ProductEventDTO event, String category);
+
+    int getSubscriberCount();
+}
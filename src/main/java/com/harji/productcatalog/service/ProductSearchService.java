@@ -0,0 +1,19 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+
+import java.util.List;
+
+public interface ProductSearchService {
+
+    /**
+     * Keyword search over name, category and description. The last word also matches as a prefix.
+     */
+    List<ProductSearchHitDTO> search(String query, int limit);
+
+    /**
+     * Adds or refreshes a product in the index once the surrounding transaction, if any, commits.
+     */
+    void index(ProductDTO productDTO);
+}
@@ -1,9 +1,21 @@
 package com.harji.productcatalog.service;
 
+import com.harji.productcatalog.dto.BatchResultDTO;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.dto.ProductImportResultDTO;
+import com.harji.productcatalog.dto.ProductPageDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.dto.StockLevelDTO;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
@@ -11,7 +23,65 @@ public interface ProductService {
 
     ProductDTO updateProduct(UUID productId, ProductDTO productDTO);
 
+    /**
+     * Sets only the named fields to their values in {@code changes} with a single targeted update, and returns
+     * the product as it is afterwards.
+     */
+    ProductDTO patchProduct(UUID productId, ProductDTO changes, Set<String> fields);
+
+    /**
+     * Creates products in chunked transactions, reporting the outcome of every item instead of failing the whole call.
+     */
+    BatchResultDTO createProducts(List<ProductDTO> productDTOs);
+
+    /**
+     * Updates the products identified by each item's productId, reporting the outcome of every item.
+     */
+    BatchResultDTO updateProducts(List<ProductDTO> productDTOs);
+
+    /**
+     * Streams a catalog file into the products table, creating products and updating existing ones by productId.
+     * Memory use does not grow with the size of the file; rejected records are counted and the first are reported.
+     */
+    ProductImportResultDTO importProducts(InputStream input, ProductFileFormat format);
+
+    /**
+     * Atomically decrements available stock without locking the row, failing if not enough is left.
+     */
+    StockLevelDTO reserveStock(UUID productId, int quantity);
+
+    /**
+     * Atomically increments available stock, e.g. when a reservation is cancelled.
+     */
+    StockLevelDTO releaseStock(UUID productId, int quantity);
+
     ProductDTO getProductById(UUID productId);
 
-    List<ProductDTO> getAllProducts();
+    /**
+     * Returns the product's last update time without loading the product, for conditional requests.
+     */
+    Optional<LocalDateTime> getProductLastUpdated(UUID productId);
+
+    /**
+     * Returns an opaque version of the whole catalog that moves on whenever a product write becomes visible,
+     * in commit order, or {@code null} if it is empty.
+     */
+    String getCatalogVersion();
+
+    /**
+     * Returns up to {@code limit} products matching the criteria, continuing from {@code cursor} when given.
+     */
+    ProductPageDTO getProducts(ProductSearchCriteria criteria, String cursor, int limit);
+
+    /**
+     * Pushes every product to the consumer one at a time without materializing the catalog.
+     */
+    void streamAllProducts(Consumer<ProductDTO> consumer);
+
+    /**
+     * Writes the products matching the criteria to {@code output} in the criteria's order and returns how many were
+     * written. Rows are read from a database cursor, so memory use does not grow with the size of the catalog.
+     * {@code output} is flushed but not closed.
+     */
+    long exportProducts(ProductSearchCriteria criteria, ProductFileFormat format, OutputStream output);
 }
@@ -1,49 +1,60 @@
 package com.harji.productcatalog.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.harji.productcatalog.domain.ProductEventType;
-import com.harji.productcatalog.dto.ProductDTO;
 import com.harji.productcatalog.dto.ProductEventDTO;
 import com.harji.productcatalog.service.EventPublisherService;
+import com.harji.productcatalog.service.EventSerializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Default implementation of EventPublisherService that logs events.
+ * <p>
+ * Events are logged at DEBUG, and only serialized when that level is enabled; the record of what was published
+ * is the sampled audit log written by {@link ProductEventAuditServiceImpl}.
  */
 @Service
 @Primary
+@Profile("!pubsub & !rabbitmq")
 @RequiredArgsConstructor
 public class DefaultEventPublisherService implements EventPublisherService {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultEventPublisherService.class);
 
-    private final ObjectMapper objectMapper;
+    private final EventSerializer eventSerializer;
 
     @org.springframework.beans.factory.annotation.Value("${app.event.topic}")
     private String eventTopic;
 
     @Override
-    public void publishProductEvent(ProductEventType eventType, ProductDTO productDTO) {
+    public void publishProductEvents(List<ProductEventDTO> events) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        for (ProductEventDTO eventDTO : events) {
+            publish(eventDTO);
+        }
+    }
+
+    private void publish(ProductEventDTO eventDTO) {
         try {
-            ProductEventDTO eventDTO = ProductEventDTO.builder()
-                    .eventType(eventType)
-                    .timestamp(LocalDateTime.now())
-                    .product(productDTO)
-                    .build();
-
-            String payload = objectMapper.writeValueAsString(eventDTO);
-            log.info("EVENT PUBLISHED to topic {}: {}", eventTopic, eventType);
-            log.info("EVENT PAYLOAD: {}", payload);
-            log.info("EVENT for product ID: {}", productDTO.getProductId());
-        } catch (JsonProcessingException e) {
+            byte[] payload = eventSerializer.serialize(eventDTO);
+            if (JsonEventSerializer.CONTENT_TYPE.equals(eventSerializer.getContentType())) {
+                log.debug("Published {} for product {} to topic {}: {}", eventDTO.getEventType(),
+                        eventDTO.getProduct().getProductId(), eventTopic, new String(payload, StandardCharsets.UTF_8));
+            } else {
+                log.debug("Published {} for product {} to topic {}: {} bytes of {}", eventDTO.getEventType(),
+                        eventDTO.getProduct().getProductId(), eventTopic, payload.length,
+                        eventSerializer.getContentType());
+            }
+        } catch (IllegalStateException e) {
             log.error("Failed to serialize event: {}", e.getMessage(), e);
         }
     }
@@ -0,0 +1,37 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.service.HotStockService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes in-memory hot stock counters behind to the database, and once more on shutdown.
+ */
+@Component
+public class HotStockFlushScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockFlushScheduler.class);
+
+    private final HotStockService hotStockService;
+
+    public HotStockFlushScheduler(HotStockService hotStockService) {
+        this.hotStockService = hotStockService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.hot.flush-interval-ms:1000}")
+    public void flushHotStock() {
+        try {
+            hotStockService.flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush hot stock counters, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushHotStock();
+    }
+}
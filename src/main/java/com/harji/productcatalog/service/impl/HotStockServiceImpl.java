@@ -0,0 +1,197 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.StockLevelDTO;
+import com.harji.productcatalog.exception.InsufficientStockException;
+import com.harji.productcatalog.exception.ProductNotFoundException;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.HotStockService;
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Striped in-memory stock counters for the products listed in {@code app.stock.hot.product-ids}.
+ * <p>
+ * A counter is loaded from the database the first time its product is touched. Counters live in this
+ * instance only, so a hot product must be served by a single instance.
+ */
+@Service
+public class HotStockServiceImpl implements HotStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final ProductEventOutboxService productEventOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<UUID> hotProductIds;
+    private final int stripes;
+    private final Map<UUID, StripedStockCounter> counters = new ConcurrentHashMap<>();
+
+    public HotStockServiceImpl(ProductRepository productRepository,
+                               ProductEventOutboxService productEventOutboxService,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.stock.hot.product-ids:}") Set<UUID> hotProductIds,
+                               @Value("${app.stock.hot.stripes:16}") int stripes) {
+        this.productRepository = productRepository;
+        this.productEventOutboxService = productEventOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+        this.stripes = stripes;
+        if (!this.hotProductIds.isEmpty()) {
+            log.info("Keeping stock of {} hot products in memory", this.hotProductIds.size());
+        }
+    }
+
+    @Override
+    public boolean isHot(UUID productId) {
+        return hotProductIds.contains(productId);
+    }
+
+    @Override
+    public StockLevelDTO reserve(UUID productId, int quantity) {
+        StripedStockCounter counter = counterFor(productId);
+        if (!counter.tryTake(quantity)) {
+            throw new InsufficientStockException(
+                    "Insufficient stock to reserve " + quantity + " units of product " + productId);
+        }
+        return stockLevel(productId, counter);
+    }
+
+    @Override
+    public StockLevelDTO release(UUID productId, int quantity) {
+        StripedStockCounter counter = counterFor(productId);
+        counter.add(quantity);
+        return stockLevel(productId, counter);
+    }
+
+    @Override
+    public ProductDTO withLiveStock(ProductDTO productDTO) {
+        StripedStockCounter counter = counters.get(productDTO.getProductId());
+        if (counter == null) {
+            return productDTO;
+        }
+        LocalDateTime lastChanged = toLocalDateTime(counter.lastChangedMillis());
+        return productDTO.toBuilder()
+                .availableStock(clamp(counter.sum()))
+                .lastUpdated(productDTO.getLastUpdated() == null || lastChanged.isAfter(productDTO.getLastUpdated())
+                        ? lastChanged
+                        : productDTO.getLastUpdated())
+                .build();
+    }
+
+    @Override
+    public Optional<LocalDateTime> getLastChanged(UUID productId) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter == null ? Optional.empty() : Optional.of(toLocalDateTime(counter.lastChangedMillis()));
+    }
+
+    @Override
+    public void reset(UUID productId, int stock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            resetCounter(productId, stock);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                resetCounter(productId, stock);
+            }
+        });
+    }
+
+    @Override
+    public int flush() {
+        List<Map.Entry<UUID, StripedStockCounter>> changed = new ArrayList<>();
+        for (Map.Entry<UUID, StripedStockCounter> entry : counters.entrySet()) {
+            if (entry.getValue().markClean()) {
+                changed.add(entry);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<UUID, StripedStockCounter> entry : changed) {
+                    writeStock(entry.getKey(), entry.getValue());
+                }
+            });
+        } catch (RuntimeException e) {
+            // Leave the counters dirty so the next flush writes them again
+            changed.forEach(entry -> entry.getValue().markDirty());
+            throw e;
+        }
+        log.debug("Flushed stock of {} hot products", changed.size());
+        return changed.size();
+    }
+
+    private void writeStock(UUID productId, StripedStockCounter counter) {
+        int stock = clamp(counter.sum());
+        LocalDateTime lastUpdated = toLocalDateTime(counter.lastChangedMillis());
+        if (productRepository.overwriteStock(productId, stock, lastUpdated) == 0) {
+            log.warn("Hot product {} no longer exists, dropping its counter", productId);
+            counters.remove(productId, counter);
+            return;
+        }
+        productEventOutboxService.record(ProductEventType.PRODUCT_STOCK_CHANGED, ProductDTO.builder()
+                .productId(productId)
+                .availableStock(stock)
+                .lastUpdated(lastUpdated)
+                .build());
+    }
+
+    private void resetCounter(UUID productId, int stock) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.reset(stock);
+        }
+    }
+
+    private StripedStockCounter counterFor(UUID productId) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        // Load outside computeIfAbsent: its bin lock is a monitor and would pin a virtual thread during JDBC
+        Integer stock = productRepository.findAvailableStockById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        StripedStockCounter loaded = new StripedStockCounter(stripes, stock, System.currentTimeMillis());
+        counter = counters.putIfAbsent(productId, loaded);
+        return counter != null ? counter : loaded;
+    }
+
+    private StockLevelDTO stockLevel(UUID productId, StripedStockCounter counter) {
+        return StockLevelDTO.builder()
+                .productId(productId)
+                .availableStock(clamp(counter.sum()))
+                .lastUpdated(toLocalDateTime(counter.lastChangedMillis()))
+                .build();
+    }
+
+    private static int clamp(long stock) {
+        return (int) Math.min(stock, Integer.MAX_VALUE);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
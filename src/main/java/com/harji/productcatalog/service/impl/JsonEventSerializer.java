@@ -0,0 +1,54 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.EventSerializer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * JSON event encoding using the application's ObjectMapper. This is the default.
+ * <p>
+ * Null properties are left out, so a delta event carries only the fields it lists in {@code changedFields}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.event.serializer", havingValue = "json", matchIfMissing = true)
+public class JsonEventSerializer implements EventSerializer {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonEventSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    @Timed(value = "product.events.serialize", extraTags = {"format", "json"})
+    public byte[] serialize(ProductEventDTO event) {
+        try {
+            // Straight to bytes: skips the intermediate String and its UTF-8 re-encoding
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize event: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ProductEventDTO deserialize(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, ProductEventDTO.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON event payload: " + e.getMessage(), e);
+        }
+    }
+}
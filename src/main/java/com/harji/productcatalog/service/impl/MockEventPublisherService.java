@@ -1,7 +1,6 @@
 package com.harji.productcatalog.service.impl;
 
-import com.harji.productcatalog.domain.ProductEventType;
-import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
 import com.harji.productcatalog.service.EventPublisherService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -9,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Profile("test")
 public class MockEventPublisherService implements EventPublisherService {
@@ -16,7 +17,16 @@ public class MockEventPublisherService implements EventPublisherService {
     private static final Logger log = LoggerFactory.getLogger(MockEventPublisherService.class);
 
     @Override
-    public void publishProductEvent(ProductEventType eventType, ProductDTO productDTO) {
-        log.info("MOCK: Published {} event for product ID: {}", eventType, productDTO.getProductId());
+    public String getName() {
+        return "mock";
+    }
+
+    @Override
+    public void publishProductEvents(List<ProductEventDTO> events) {
+        for (ProductEventDTO event : events) {
+            log.debug("MOCK: Published {} event for product ID: {} (version {}, changed fields {})",
+                    event.getEventType(), event.getProduct().getProductId(), event.getVersion(),
+                    event.getChangedFields());
+        }
     }
 }
@@ -1,71 +1,218 @@
 package com.harji.productcatalog.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.harji.productcatalog.domain.ProductEventType;
-import com.harji.productcatalog.dto.ProductDTO;
 import com.harji.productcatalog.dto.ProductEventDTO;
 import com.harji.productcatalog.service.EventPublisherService;
+import com.harji.productcatalog.service.EventSerializer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * GCP Pub/Sub event publisher implementation.
+ * <p>
+ * Like the Pub/Sub client library, messages from all callers are accumulated into one batch that is sent
+ * when it reaches {@code max-messages} or {@code max-bytes}, or when its oldest message has waited
+ * {@code max-delay-ms}. Callers block until the batch holding their messages has been acknowledged.
+ * The simulated broker charges a fixed cost per batch rather than per message. Each message carries a
+ * {@value #CONTENT_TYPE_ATTRIBUTE} attribute naming the configured {@link EventSerializer} encoding.
  */
 @Service
 @Profile("pubsub")
-public class MockPubSubEventPublisherService implements EventPublisherService {
+public class MockPubSubEventPublisherService implements EventPublisherService, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(MockPubSubEventPublisherService.class);
 
-    private final ObjectMapper objectMapper;
-
-    @Value("${app.event.topic}")
-    private String topicName;
+    static final String CONTENT_TYPE_ATTRIBUTE = "content-type";
+    static final String EVENT_TYPE_ATTRIBUTE = "event-type";
+
+    private final EventSerializer eventSerializer;
+    private final String topicName;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final long maxDelayMs;
+    private final long simulatedBatchLatencyMs;
+    private final Timer batchLatency;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchBytes;
+    private final ScheduledExecutorService delayScheduler;
+    private final AtomicLong messageIds = new AtomicLong();
+
+    private final Object lock = new Object();
+    private List<PendingMessage> currentBatch = new ArrayList<>();
+    private long currentBytes;
+    private ScheduledFuture<?> delayedFlush;
+
+    public MockPubSubEventPublisherService(EventSerializer eventSerializer,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.event.topic}") String topicName,
+                                           @Value("${app.event.pubsub.batch.max-messages:100}") int maxMessages,
+                                           @Value("${app.event.pubsub.batch.max-bytes:1048576}") long maxBytes,
+                                           @Value("${app.event.pubsub.batch.max-delay-ms:10}") long maxDelayMs,
+                                           @Value("${app.event.pubsub.simulated-batch-latency-ms:100}") long simulatedBatchLatencyMs) {
+        this.eventSerializer = eventSerializer;
+        this.topicName = topicName;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.maxDelayMs = maxDelayMs;
+        this.simulatedBatchLatencyMs = simulatedBatchLatencyMs;
+        this.batchLatency = Timer.builder("product.events.pubsub.batch.latency")
+                .description("Time to publish one batch to Pub/Sub")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("product.events.pubsub.batch.size")
+                .description("Messages per Pub/Sub batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchBytes = DistributionSummary.builder("product.events.pubsub.batch.bytes")
+                .description("Payload bytes per Pub/Sub batch")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.delayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pubsub-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-    public MockPubSubEventPublisherService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    @Override
+    public String getName() {
+        return "pubsub";
     }
 
     @Override
-    public void publishProductEvent(ProductEventType eventType, ProductDTO productDTO) {
+    public void publishProductEvents(List<ProductEventDTO> events) {
+        List<CompletableFuture<String>> acks = new ArrayList<>(events.size());
+        for (ProductEventDTO event : events) {
+            acks.add(publish(event));
+        }
         try {
-            ProductEventDTO eventDTO = ProductEventDTO.builder()
-                    .eventType(eventType)
-                    .timestamp(LocalDateTime.now())
-                    .product(productDTO)
-                    .build();
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to publish to Pub/Sub topic " + topicName, e.getCause());
+        }
+    }
 
-            String payload = objectMapper.writeValueAsString(eventDTO);
+    @Override
+    public void destroy() {
+        delayScheduler.shutdownNow();
+        flushCurrentBatch();
+    }
 
-            // Publish to Pub/Sub topic
-            log.info("MOCK PUB/SUB: Publishing to topic {}", topicName);
-            log.info("MOCK PUB/SUB: Event type: {}", eventType);
-            log.info("MOCK PUB/SUB: Payload: {}", payload);
+    /**
+     * Adds one message to the current batch and returns a future of its message id.
+     */
+    CompletableFuture<String> publish(ProductEventDTO event) {
+        byte[] payload;
+        try {
+            payload = eventSerializer.serialize(event);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Map<String, String> attributes = Map.of(
+                CONTENT_TYPE_ATTRIBUTE, eventSerializer.getContentType(),
+                EVENT_TYPE_ATTRIBUTE, event.getEventType().name());
+        PendingMessage message = new PendingMessage(payload, attributes, new CompletableFuture<>());
+
+        List<PendingMessage> overflow = null;
+        List<PendingMessage> full = null;
+        synchronized (lock) {
+            // Close the current batch first if this message would push it over the byte limit
+            if (!currentBatch.isEmpty() && currentBytes + payload.length > maxBytes) {
+                overflow = takeCurrentBatch();
+            }
+            currentBatch.add(message);
+            currentBytes += payload.length;
+            if (currentBatch.size() >= maxMessages || currentBytes >= maxBytes) {
+                full = takeCurrentBatch();
+            } else if (delayedFlush == null) {
+                delayedFlush = delayScheduler.schedule(this::flushCurrentBatch, maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
 
+        if (overflow != null) {
+            send(overflow);
+        }
+        if (full != null) {
+            send(full);
+        }
+        return message.ack();
+    }
 
-            simulatePublish(payload);
+    private void flushCurrentBatch() {
+        List<PendingMessage> batch;
+        synchronized (lock) {
+            if (currentBatch.isEmpty()) {
+                return;
+            }
+            batch = takeCurrentBatch();
+        }
+        send(batch);
+    }
 
-            log.info("MOCK PUB/SUB: Successfully published event for product ID: {}", productDTO.getProductId());
-        } catch (Exception e) {
-            log.error("Failed to publish product event: {}", e.getMessage(), e);
+    private List<PendingMessage> takeCurrentBatch() {
+        List<PendingMessage> batch = currentBatch;
+        currentBatch = new ArrayList<>(Math.min(maxMessages, 1024));
+        currentBytes = 0;
+        if (delayedFlush != null) {
+            delayedFlush.cancel(false);
+            delayedFlush = null;
         }
+        return batch;
     }
 
-    private void simulatePublish(String payload) {
-        try {
+    private void send(List<PendingMessage> batch) {
+        long bytes = 0;
+        for (PendingMessage message : batch) {
+            bytes += message.payload().length;
+        }
 
-            Thread.sleep(100);
+        long start = System.nanoTime();
+        try {
+            simulatePublish(batch, bytes);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish batch of {} messages: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(message -> message.ack().completeExceptionally(e));
+            return;
+        }
+        batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        batchBytes.record(bytes);
 
+        for (PendingMessage message : batch) {
+            message.ack().complete("mock-msg-" + messageIds.incrementAndGet());
+        }
+    }
 
-            log.info("MOCK PUB/SUB: Message ID: mock-msg-" + System.currentTimeMillis());
+    private void simulatePublish(List<PendingMessage> batch, long bytes) {
+        try {
+            // One round trip per batch, whatever its size
+            Thread.sleep(simulatedBatchLatencyMs);
+            log.debug("MOCK PUB/SUB: Published batch of {} messages ({} bytes, {}) to topic {}", batch.size(), bytes,
+                    batch.get(0).attributes().get(CONTENT_TYPE_ATTRIBUTE), topicName);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("Interrupted while simulating publish", e);
+            throw new IllegalStateException("Interrupted while simulating publish", e);
         }
     }
+
+    private record PendingMessage(byte[] payload, Map<String, String> attributes, CompletableFuture<String> ack) {
+    }
 }
@@ -0,0 +1,38 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background relay that drains the product event outbox to the active publisher.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayScheduler.class);
+
+    private final ProductEventOutboxService productEventOutboxService;
+
+    public OutboxRelayScheduler(ProductEventOutboxService productEventOutboxService) {
+        this.productEventOutboxService = productEventOutboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:200}")
+    public void relayPendingEvents() {
+        try {
+            // Keep draining while there is a backlog instead of waiting a full interval per batch
+            while (productEventOutboxService.relayNextBatch() > 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to relay outbox events, will retry: {}", e.getMessage(), e);
+        }
+    }
+}
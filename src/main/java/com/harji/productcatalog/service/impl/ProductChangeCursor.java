@@ -0,0 +1,65 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the change feed: the id of the transaction that last wrote a product, then its productId.
+ * Transaction ids only grow, so a product that changes again moves past every cursor already issued.
+ * Encoded as an opaque URL-safe token like {@link ProductCursor}.
+ */
+record ProductChangeCursor(long changeXid, UUID productId) implements Comparable<ProductChangeCursor> {
+
+    static final ProductChangeCursor START = new ProductChangeCursor(0, new UUID(0, 0));
+
+    private static final String SEPARATOR = ":";
+
+    String encode() {
+        String raw = changeXid + SEPARATOR + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token, or returns {@link #START} when there is none so the first sync reads the whole catalog.
+     */
+    static ProductChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            return parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Parses the raw {@code changeXid:productId} form, as returned by the latest change position query.
+     */
+    static ProductChangeCursor parse(String raw) {
+        String[] parts = raw.split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid change position: " + raw);
+        }
+        long changeXid = Long.parseLong(parts[0]);
+        if (changeXid < 0) {
+            throw new IllegalArgumentException("Invalid change position: " + raw);
+        }
+        return new ProductChangeCursor(changeXid, UUID.fromString(parts[1]));
+    }
+
+    @Override
+    public int compareTo(ProductChangeCursor other) {
+        int byXid = Long.compare(changeXid, other.changeXid);
+        if (byXid != 0) {
+            return byXid;
+        }
+        // Same order as PostgreSQL's uuid comparison: unsigned, byte by byte
+        int byHigh = Long.compareUnsigned(productId.getMostSignificantBits(), other.productId.getMostSignificantBits());
+        return byHigh != 0 ? byHigh
+                : Long.compareUnsigned(productId.getLeastSignificantBits(), other.productId.getLeastSignificantBits());
+    }
+}
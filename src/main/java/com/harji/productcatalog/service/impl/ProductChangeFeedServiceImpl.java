@@ -0,0 +1,136 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.dto.ProductChangesDTO;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.repository.ProductChange;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.ProductChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change feed over the products table, ordered by the transaction that last wrote each product.
+ * <p>
+ * Each page is one index range scan from the cursor, so a sync costs in proportion to what changed since the
+ * previous one rather than to the size of the catalog. Long-poll requests are parked as waiters; while any
+ * are parked, a single query for the latest change position runs every {@code poll-interval-ms} and only
+ * the waiters behind that position read their page.
+ */
+@Service
+public class ProductChangeFeedServiceImpl implements ProductChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeedServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final int maxWaiters;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    public ProductChangeFeedServiceImpl(ProductRepository productRepository,
+                                        @Value("${app.products.changes.max-waiters:10000}") int maxWaiters) {
+        this.productRepository = productRepository;
+        this.maxWaiters = maxWaiters;
+    }
+
+    @Override
+    public ProductChangesDTO getChanges(String cursor, int limit) {
+        return readPage(ProductChangeCursor.decode(cursor), limit);
+    }
+
+    @Override
+    public CompletableFuture<ProductChangesDTO> awaitChanges(String cursor, int limit, Duration timeout) {
+        ProductChangeCursor position = ProductChangeCursor.decode(cursor);
+        ProductChangesDTO page = readPage(position, limit);
+        if (!page.getProducts().isEmpty() || timeout.isZero()) {
+            return CompletableFuture.completedFuture(page);
+        }
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            // Answer right away rather than parking unbounded requests; the client simply polls again
+            waiterCount.decrementAndGet();
+            log.debug("Change feed waiter limit of {} reached, answering without waiting", maxWaiters);
+            return CompletableFuture.completedFuture(page);
+        }
+        Waiter waiter = new Waiter(position, limit, System.nanoTime() + timeout.toNanos(), new CompletableFuture<>());
+        waiters.add(waiter);
+        return waiter.result();
+    }
+
+    /**
+     * Completes the waiters that changes have arrived for, and those whose timeout has passed.
+     */
+    @Scheduled(fixedDelayString = "${app.products.changes.poll-interval-ms:500}")
+    public void completeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            ProductChangeCursor latest = productRepository.findLatestChangePosition()
+                    .map(ProductChangeCursor::parse)
+                    .orElse(ProductChangeCursor.START);
+            long now = System.nanoTime();
+            for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+                Waiter waiter = iterator.next();
+                if (waiter.result().isDone()) {
+                    remove(iterator);
+                } else if (waiter.position().compareTo(latest) < 0) {
+                    waiter.result().complete(readPage(waiter.position(), waiter.limit()));
+                    remove(iterator);
+                } else if (now - waiter.deadline() >= 0) {
+                    waiter.result().complete(emptyPage(waiter.position()));
+                    remove(iterator);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to check the change feed for waiting requests, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private ProductChangesDTO readPage(ProductChangeCursor position, int limit) {
+        List<ProductChange> changes = productRepository.findChangesAfter(
+                Long.toString(position.changeXid()), position.productId(), limit);
+        if (changes.isEmpty()) {
+            return emptyPage(position);
+        }
+        ProductChange last = changes.get(changes.size() - 1);
+        ProductChangeCursor next = new ProductChangeCursor(Long.parseLong(last.getChangeXid()), last.getProductId());
+
+        List<ProductDTO> products = new ArrayList<>(changes.size());
+        for (ProductChange change : changes) {
+            products.add(ProductMapper.toDTO(change));
+        }
+        return ProductChangesDTO.builder()
+                .products(products)
+                .nextCursor(next.encode())
+                .hasMore(changes.size() == limit)
+                .build();
+    }
+
+    private ProductChangesDTO emptyPage(ProductChangeCursor position) {
+        return ProductChangesDTO.builder()
+                .products(List.of())
+                .nextCursor(position.encode())
+                .hasMore(false)
+                .build();
+    }
+
+    private void remove(Iterator<Waiter> iterator) {
+        iterator.remove();
+        waiterCount.decrementAndGet();
+    }
+
+    private record Waiter(ProductChangeCursor position, int limit, long deadline,
+                          CompletableFuture<ProductChangesDTO> result) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.exception.InvalidRequestException;
+import com.harji.productcatalog.repository.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a (sort key, productId) ordering of the catalog.
+ * Encoded as an opaque URL-safe token so clients never depend on its layout. The sort key and
+ * direction are part of the token so a cursor cannot be replayed against a different ordering.
+ */
+final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final ProductSearchCriteria.SortKey sortKey;
+    private final Sort.Direction direction;
+    private final UUID productId;
+    private final String sortValue;
+
+    private ProductCursor(ProductSearchCriteria.SortKey sortKey, Sort.Direction direction, UUID productId, String sortValue) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.productId = productId;
+        this.sortValue = sortValue;
+    }
+
+    static ProductCursor of(ProductSearchCriteria criteria, ProductDTO last) {
+        String sortValue = switch (criteria.getSortKey()) {
+            case LAST_UPDATED -> last.getLastUpdated().toString();
+            case PRICE -> last.getPrice().toPlainString();
+            case NAME -> last.getName();
+        };
+        return new ProductCursor(criteria.getSortKey(), criteria.getDirection(), last.getProductId(), sortValue);
+    }
+
+    /**
+     * Restriction selecting the rows that follow this position.
+     */
+    Specification<Product> toSpecification() {
+        String property = sortKey.getProperty();
+        return switch (sortKey) {
+            case LAST_UPDATED -> ProductSpecifications.after(property, direction, LocalDateTime.parse(sortValue), productId);
+            case PRICE -> ProductSpecifications.after(property, direction, new BigDecimal(sortValue), productId);
+            case NAME -> ProductSpecifications.after(property, direction, sortValue, productId);
+        };
+    }
+
+    String encode() {
+        // The free-form sort value goes last so it may itself contain the separator
+        String raw = sortKey + SEPARATOR + direction + SEPARATOR + productId + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token, ProductSearchCriteria criteria) {
+        ProductCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new InvalidRequestException("Invalid cursor: " + token);
+            }
+            cursor = new ProductCursor(
+                    ProductSearchCriteria.SortKey.valueOf(parts[0]),
+                    Sort.Direction.valueOf(parts[1]),
+                    UUID.fromString(parts[2]),
+                    parts[3]);
+            // Parse eagerly so a corrupt value is reported as a bad request rather than a query failure
+            cursor.toSpecification();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+        if (cursor.sortKey != criteria.getSortKey() || cursor.direction != criteria.getDirection()) {
+            throw new InvalidRequestException("Cursor does not match the requested sort order");
+        }
+        return cursor;
+    }
+}
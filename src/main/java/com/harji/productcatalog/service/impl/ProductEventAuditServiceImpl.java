@@ -0,0 +1,104 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.ProductEventAuditService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled, structured audit log of product events on the {@value #AUDIT_LOGGER} logger.
+ * <p>
+ * Each event type has its own sample rate ({@code app.audit.sample-rate.<event-type>}, falling back to
+ * {@code app.audit.sample-rate.default}), so rare events can be kept in full while high-volume stock changes are
+ * only sampled. Events are logged as key-value pairs for a structured encoder, and the logger is meant to have its
+ * own asynchronous appender (see {@code logback-spring.xml}). The payload is passed as a lazy value that is
+ * serialized when the appender writes it, on the appender's thread, and only for events that are logged.
+ */
+@Service
+public class ProductEventAuditServiceImpl implements ProductEventAuditService {
+
+    public static final String AUDIT_LOGGER = "product.audit";
+
+    private static final Logger audit = LoggerFactory.getLogger(AUDIT_LOGGER);
+    private static final Logger log = LoggerFactory.getLogger(ProductEventAuditServiceImpl.class);
+
+    private final ObjectMapper objectMapper;
+    private final boolean includePayload;
+    private final Map<ProductEventType, Double> sampleRates = new EnumMap<>(ProductEventType.class);
+
+    public ProductEventAuditServiceImpl(ObjectMapper objectMapper,
+                                       Environment environment,
+                                       @Value("${app.audit.include-payload:false}") boolean includePayload) {
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.includePayload = includePayload;
+        double defaultRate = environment.getProperty("app.audit.sample-rate.default", Double.class, 1.0);
+        for (ProductEventType eventType : ProductEventType.values()) {
+            String key = "app.audit.sample-rate." + eventType.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            sampleRates.put(eventType, environment.getProperty(key, Double.class, defaultRate));
+        }
+    }
+
+    @Override
+    public void audit(ProductEventDTO event, String outcome) {
+        if (!audit.isInfoEnabled() || !sampled(event.getEventType())) {
+            return;
+        }
+        LoggingEventBuilder entry = audit.atInfo()
+                .addKeyValue("eventType", event.getEventType())
+                .addKeyValue("outcome", outcome)
+                .addKeyValue("eventTimestamp", event.getTimestamp());
+        if (event.getProduct() != null) {
+            entry.addKeyValue("productId", event.getProduct().getProductId());
+        }
+        if (event.getVersion() != null) {
+            entry.addKeyValue("version", event.getVersion());
+        }
+        if (event.getChangedFields() != null) {
+            entry.addKeyValue("changedFields", String.join(",", event.getChangedFields()));
+        }
+        if (includePayload) {
+            entry.addKeyValue("payload", new LazyPayload(event));
+        }
+        entry.log("product event");
+    }
+
+    private boolean sampled(ProductEventType eventType) {
+        double rate = eventType == null ? 1.0 : sampleRates.get(eventType);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Serializes the event when the appender formats the log entry rather than when it is logged.
+     */
+    private final class LazyPayload {
+
+        private final ProductEventDTO event;
+
+        LazyPayload(ProductEventDTO event) {
+            this.event = event;
+        }
+
+        @Override
+        public String toString() {
+            try {
+                return objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize audited {} event: {}", event.getEventType(), e.getMessage());
+                return "";
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.config.ReplicaStalenessGuard;
+import com.harji.productcatalog.domain.OutboxEvent;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.service.AsyncEventPublisherService;
+import com.harji.productcatalog.service.ProductEventAuditService;
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import com.harji.productcatalog.service.ProductEventStreamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class ProductEventOutboxServiceImpl implements ProductEventOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductEventOutboxServiceImpl.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final AsyncEventPublisherService asyncEventPublisherService;
+    private final ProductEventStreamService productEventStreamService;
+    private final ProductEventAuditService productEventAuditService;
+    private final ReplicaStalenessGuard replicaStalenessGuard;
+    private final ObjectMapper objectMapper;
+    private final Timer payloadSerializationTimer;
+    private final int batchSize;
+    private final long publishTimeoutMs;
+
+    public ProductEventOutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                                         AsyncEventPublisherService asyncEventPublisherService,
+                                         ProductEventStreamService productEventStreamService,
+                                         ProductEventAuditService productEventAuditService,
+                                         ReplicaStalenessGuard replicaStalenessGuard,
+                                         ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.outbox.batch-size:500}") int batchSize,
+                                         @Value("${app.outbox.publish-timeout-ms:30000}") long publishTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.asyncEventPublisherService = asyncEventPublisherService;
+        this.productEventStreamService = productEventStreamService;
+        this.productEventAuditService = productEventAuditService;
+        this.replicaStalenessGuard = replicaStalenessGuard;
+        this.objectMapper = objectMapper;
+        this.payloadSerializationTimer = Timer.builder("product.outbox.serialize")
+                .description("Time to serialize a product into an outbox payload, inside the write transaction")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.publishTimeoutMs = publishTimeoutMs;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ProductEventType eventType, ProductDTO productDTO) {
+        // Every product write records its event here, so this is where reads are pinned to the primary after one
+        replicaStalenessGuard.recordWrite();
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .eventType(eventType)
+                    .productId(productDTO.getProductId())
+                    .payload(toPayload(productDTO))
+                    .category(productDTO.getCategory())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product for outbox: " + productDTO.getProductId(), e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(ProductDTO changes, Set<String> changedFields, Long version, String category) {
+        replicaStalenessGuard.recordWrite();
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .eventType(ProductEventType.PRODUCT_UPDATED)
+                    .productId(changes.getProductId())
+                    .payload(toPayload(changes))
+                    .changedFields(String.join(",", changedFields))
+                    .productVersion(version)
+                    .category(category)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product for outbox: " + changes.getProductId(), e);
+        }
+    }
+
+    /**
+     * Not transactional: the batch is leased in its own short transaction, so no row lock or transaction id is held
+     * while acks are awaited. Events are handed to the publisher in rounds, the first pending event of each product in
+     * the first round, the second in the next, and once one of a product's events fails its later events are left in
+     * the outbox. A later event is therefore never published ahead of an earlier one that is still to be retried.
+     */
+    @Override
+    public int relayNextBatch() {
+        List<OutboxEvent> pending = new ArrayList<>(outboxEventRepository.claimNextBatch(batchSize, leaseMs()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        pending.sort(Comparator.comparing(OutboxEvent::getId));
+
+        List<List<Integer>> rounds = new ArrayList<>();
+        Map<UUID, Integer> eventsPerProduct = new HashMap<>();
+        for (int i = 0; i < pending.size(); i++) {
+            int round = eventsPerProduct.merge(pending.get(i).getProductId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(i);
+        }
+
+        ProductEventDTO[] events = new ProductEventDTO[pending.size()];
+        boolean[] acked = new boolean[pending.size()];
+        Set<UUID> failedProducts = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(publishTimeoutMs);
+        for (List<Integer> round : rounds) {
+            List<Integer> sent = new ArrayList<>(round.size());
+            List<CompletableFuture<Void>> acks = new ArrayList<>(round.size());
+            for (int i : round) {
+                if (failedProducts.contains(pending.get(i).getProductId())) {
+                    continue;
+                }
+                events[i] = toEvent(pending.get(i));
+                sent.add(i);
+                acks.add(asyncEventPublisherService.publishProductEventAsync(events[i]));
+            }
+            awaitAcks(acks, deadline);
+            for (int j = 0; j < sent.size(); j++) {
+                CompletableFuture<Void> ack = acks.get(j);
+                int i = sent.get(j);
+                if (ack.isDone() && !ack.isCompletedExceptionally()) {
+                    acked[i] = true;
+                } else {
+                    failedProducts.add(pending.get(i).getProductId());
+                }
+            }
+        }
+
+        // Only acknowledged rows are deleted; the rest are released and retried, in order, by a later batch
+        List<Long> published = new ArrayList<>(pending.size());
+        List<Long> unpublished = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (acked[i]) {
+                published.add(pending.get(i).getId());
+                // Live stream subscribers see an event once the broker has it, in outbox order
+                productEventStreamService.broadcast(events[i], pending.get(i).getCategory());
+                productEventAuditService.audit(events[i], "published");
+            } else {
+                unpublished.add(pending.get(i).getId());
+                if (events[i] != null) {
+                    productEventAuditService.audit(events[i], "failed");
+                }
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+        }
+        if (!unpublished.isEmpty()) {
+            outboxEventRepository.releaseClaims(unpublished);
+            log.warn("Published {} of {} outbox events, the rest will be retried", published.size(), pending.size());
+        }
+
+        log.debug("Relayed {} outbox events", published.size());
+        return published.size();
+    }
+
+    /**
+     * Outlasts the publish timeout, so a batch is not claimed twice unless the relay holding it has died.
+     */
+    private long leaseMs() {
+        return publishTimeoutMs * 2;
+    }
+
+    private ProductEventDTO toEvent(OutboxEvent outboxEvent) {
+        return ProductEventDTO.builder()
+                .eventType(outboxEvent.getEventType())
+                .timestamp(outboxEvent.getCreatedAt())
+                .product(readProduct(outboxEvent))
+                .changedFields(outboxEvent.getChangedFields() == null
+                        ? null : Arrays.asList(outboxEvent.getChangedFields().split(",")))
+                .version(outboxEvent.getProductVersion())
+                .build();
+    }
+
+    private void awaitAcks(List<CompletableFuture<Void>> acks, long deadline) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual acks are inspected by the caller
+        }
+    }
+
+    private String toPayload(ProductDTO productDTO) throws JsonProcessingException {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.writeValueAsString(productDTO);
+        } finally {
+            payloadSerializationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ProductDTO readProduct(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), ProductDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read outbox event " + outboxEvent.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.exception.SubscriberLimitExceededException;
+import com.harji.productcatalog.service.ProductEventStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans published product events out to Server-Sent Events subscribers.
+ * <p>
+ * Each event is encoded once into a complete SSE frame, and the same byte array is queued for every matching
+ * subscriber. A subscriber owns a bounded queue of such frames that a writer pool drains, so a broadcast
+ * never waits on a socket. A subscriber whose queue is full is evicted: its stream is closed and the client
+ * reconnects, instead of the server buffering without limit for a consumer that cannot keep up.
+ * <p>
+ * Servlet writes block while the client is not reading. On platform threads the pool grows up to
+ * {@code max-writer-threads} and queues further drains, so a stalled client ties up only the thread writing to it
+ * while that many threads last; with virtual threads every drain gets its own. A send still blocked after
+ * {@code send-timeout-ms} evicts its subscriber, and the thread returns once the container's write timeout fails the
+ * send.
+ */
+@Service
+public class ProductEventStreamServiceImpl implements ProductEventStreamService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductEventStreamServiceImpl.class);
+
+    private static final byte[] HEARTBEAT_FRAME = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Executor writers;
+    private final Set<Subscriber> allCategorySubscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, Set<Subscriber>> subscribersByCategory = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public ProductEventStreamServiceImpl(ObjectMapper objectMapper,
+                                         Environment environment,
+                                         @Value("${app.products.stream.max-subscribers:20000}") int maxSubscribers,
+                                         @Value("${app.products.stream.buffer-size:256}") int bufferSize,
+                                         @Value("${app.products.stream.timeout-ms:1800000}") long timeoutMs,
+                                         @Value("${app.products.stream.max-writer-threads:64}") int maxWriterThreads,
+                                         @Value("${app.products.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // A stalled client then only parks a virtual thread
+            this.writers = new VirtualThreadTaskExecutor("product-event-stream-");
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-event-stream-");
+            threadFactory.setDaemon(true);
+            // Threads are started on demand and stop when idle. At most one drain per subscriber is in flight, so the
+            // queue never holds more than one task per subscriber.
+            int threads = Math.min(maxWriterThreads, maxSubscribers);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(maxSubscribers), threadFactory);
+            pool.allowCoreThreadTimeOut(true);
+            this.writers = pool;
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(String category) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException(
+                    "Product event stream is at its limit of " + maxSubscribers + " subscribers, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(category, emitter, new ArrayBlockingQueue<>(bufferSize));
+        if (category == null) {
+            allCategorySubscribers.add(subscriber);
+        } else {
+            subscribersByCategory.compute(category, (key, subscribers) -> {
+                Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public void broadcast(ProductEventDTO event, String category) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        Set<Subscriber> categorySubscribers = category != null ? subscribersByCategory.get(category) : null;
+        if (allCategorySubscribers.isEmpty() && (categorySubscribers == null || categorySubscribers.isEmpty())) {
+            return;
+        }
+
+        byte[] frame;
+        try {
+            frame = toFrame(event);
+        } catch (IOException e) {
+            log.error("Failed to encode {} event for product {}, not streamed: {}", event.getEventType(),
+                    event.getProduct() != null ? event.getProduct().getProductId() : null, e.getMessage(), e);
+            return;
+        }
+        for (Subscriber subscriber : allCategorySubscribers) {
+            subscriber.offer(frame);
+        }
+        if (categorySubscribers != null) {
+            for (Subscriber subscriber : categorySubscribers) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Sends an SSE comment to every subscriber, keeping idle connections open through proxies and detecting
+     * clients that went away without closing the stream. Subscribers stuck in one send for longer than the send
+     * timeout are evicted.
+     */
+    @Scheduled(fixedDelayString = "${app.products.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : allCategorySubscribers) {
+            subscriber.heartbeat(now);
+        }
+        for (Set<Subscriber> subscribers : subscribersByCategory.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.heartbeat(now);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        allCategorySubscribers.forEach(Subscriber::close);
+        subscribersByCategory.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        if (writers instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private byte[] toFrame(ProductEventDTO event) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(512);
+        frame.write(("event:" + event.getEventType().name() + "\ndata:").getBytes(StandardCharsets.UTF_8));
+        // Compact JSON has no line breaks, so the whole event fits in one data line
+        objectMapper.writeValue(frame, event);
+        frame.write('\n');
+        frame.write('\n');
+        return frame.toByteArray();
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (subscriber.category == null) {
+            allCategorySubscribers.remove(subscriber);
+        } else {
+            subscribersByCategory.computeIfPresent(subscriber.category, (key, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        subscriber.queue.clear();
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * One open stream: its pending frames and whether a writer is currently draining them.
+     */
+    private final class Subscriber {
+
+        private final String category;
+        private final SseEmitter emitter;
+        private final BlockingQueue<byte[]> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        /**
+         * When the send in progress started, or 0 when the writer is not inside a send.
+         */
+        private volatile long sendStartedNanos;
+
+        Subscriber(String category, SseEmitter emitter, BlockingQueue<byte[]> queue) {
+            this.category = category;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(byte[] frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                log.debug("Evicting product event subscriber with {} undelivered events", queue.size());
+                unregister(this);
+            }
+            // Also wakes a writer for an evicted subscriber, which then completes its stream
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Only once the pool is shutting down
+                    log.debug("No product event stream writer available, evicting subscriber");
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        void heartbeat(long now) {
+            long started = sendStartedNanos;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                log.debug("Evicting product event subscriber stuck in a send for {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(now - started));
+                // The blocked writer completes the stream once its send fails
+                unregister(this);
+                return;
+            }
+            offer(HEARTBEAT_FRAME);
+        }
+
+        void close() {
+            unregister(this);
+            emitter.complete();
+        }
+
+        private void drain() {
+            do {
+                try {
+                    byte[] frame;
+                    while (!closed.get() && (frame = queue.poll()) != null) {
+                        sendStartedNanos = System.nanoTime();
+                        try {
+                            emitter.send(Set.of(
+                                    new ResponseBodyEmitter.DataWithMediaType(frame, MediaType.TEXT_EVENT_STREAM)));
+                        } finally {
+                            sendStartedNanos = 0;
+                        }
+                    }
+                    if (closed.get()) {
+                        // Done here rather than by the evicting thread, as it blocks while a send is in progress
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Product event subscriber went away: {}", e.getMessage());
+                    unregister(this);
+                }
+                draining.set(false);
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes an export file one product at a time, in the formats {@link ProductImportReader} reads. Output is buffered
+ * and only flushed on {@link #close()}, which leaves the underlying stream open.
+ */
+abstract class ProductExportWriter implements Closeable {
+
+    static ProductExportWriter open(OutputStream output, ProductFileFormat format, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(output);
+            case NDJSON -> new NdjsonWriter(output, objectMapper);
+        };
+    }
+
+    abstract void write(ProductDTO product) throws IOException;
+
+    private static final class NdjsonWriter extends ProductExportWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        NdjsonWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Flushing after every product would push each line through to the client as its own write
+            this.writer = objectMapper.writerFor(ProductDTO.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        void write(ProductDTO product) throws IOException {
+            writer.writeValue(generator, product);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row of {@link ProductDTO} field names. Null values are written as empty fields.
+     */
+    private static final class CsvWriter extends ProductExportWriter {
+
+        private static final String HEADER = "productId,name,description,category,price,availableStock,lastUpdated";
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(ProductDTO product) throws IOException {
+            writeField(product.getProductId());
+            writer.write(',');
+            writeField(product.getName());
+            writer.write(',');
+            writeField(product.getDescription());
+            writer.write(',');
+            writeField(product.getCategory());
+            writer.write(',');
+            writeField(product.getPrice() == null ? null : product.getPrice().toPlainString());
+            writer.write(',');
+            writeField(product.getAvailableStock());
+            writer.write(',');
+            writeField(product.getLastUpdated());
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (!needsQuotes(text)) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean needsQuotes(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
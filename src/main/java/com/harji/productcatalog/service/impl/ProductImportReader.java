@@ -0,0 +1,342 @@
+package com.harji.productcatalog.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.exception.InvalidRequestException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads an import file one record at a time, so only the current record is held in memory however large the
+ * file is. A record that cannot be parsed comes back with its errors instead of ending the import.
+ * <p>
+ * A record longer than {@code maxRecordLength} characters is rejected without being buffered, and reading resumes
+ * at the next line, so a stray quote or a missing line break cannot pull the rest of the file into memory.
+ */
+abstract class ProductImportReader implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    long charactersRead;
+    final int maxRecordLength;
+
+    ProductImportReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    static ProductImportReader open(InputStream input, ProductFileFormat format, ObjectMapper objectMapper,
+                                    int maxRecordLength) {
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        return switch (format) {
+            case CSV -> new CsvReader(reader, maxRecordLength);
+            case NDJSON -> new NdjsonReader(reader, objectMapper, maxRecordLength);
+        };
+    }
+
+    /**
+     * The next record, or {@code null} at the end of the file.
+     */
+    abstract ImportRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * The next character, or {@code -1} at the end of the file.
+     */
+    int read() throws IOException {
+        if (position == limit) {
+            limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        charactersRead++;
+        return buffer[position++];
+    }
+
+    String tooLongError() {
+        return "Record is longer than " + maxRecordLength + " characters";
+    }
+
+    /**
+     * A parsed record and the line it starts on. {@code errors} is empty when the record could be parsed.
+     */
+    record ImportRecord(long line, ProductDTO product, List<String> errors) {
+    }
+
+    private static final class NdjsonReader extends ProductImportReader {
+
+        private final ObjectMapper objectMapper;
+        private final StringBuilder text = new StringBuilder();
+        private long line;
+
+        NdjsonReader(Reader reader, ObjectMapper objectMapper, int maxRecordLength) {
+            super(reader, maxRecordLength);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            boolean read;
+            do {
+                read = readLine();
+                line++;
+            } while (read && text.toString().isBlank());
+            if (!read) {
+                return null;
+            }
+            if (text.length() > maxRecordLength) {
+                return new ImportRecord(line, null, List.of(tooLongError()));
+            }
+            try {
+                return new ImportRecord(line, objectMapper.readValue(text.toString(), ProductDTO.class), List.of());
+            } catch (JsonProcessingException e) {
+                return new ImportRecord(line, null, List.of("Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+
+        /**
+         * Reads the next line into {@code text} without its line break, keeping at most one character more than
+         * the limit so an overlong line shows as such. Returns {@code false} at the end of the file.
+         */
+        private boolean readLine() throws IOException {
+            text.setLength(0);
+            int c = read();
+            if (c == -1) {
+                return false;
+            }
+            boolean truncated = false;
+            while (c != '\n' && c != -1) {
+                if (text.length() <= maxRecordLength) {
+                    text.append((char) c);
+                } else {
+                    truncated = true;
+                }
+                c = read();
+            }
+            if (!truncated && !text.isEmpty() && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV whose header row names the {@link ProductDTO} fields, in any order and case. {@code productId}
+     * and {@code description} may be left out; other unknown columns are ignored. Empty fields are null.
+     */
+    private static final class CsvReader extends ProductImportReader {
+
+        private static final List<String> REQUIRED_COLUMNS = List.of("name", "category", "price", "availableStock");
+        private static final List<String> OPTIONAL_COLUMNS = List.of("productId", "description");
+
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        private boolean unterminated;
+        private boolean tooLong;
+        private Map<String, Integer> columns;
+        private int columnCount;
+
+        CsvReader(Reader reader, int maxRecordLength) {
+            super(reader, maxRecordLength);
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            List<String> fields;
+            long recordLine;
+            do {
+                recordLine = line;
+                fields = readFields();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty() && !unterminated && !tooLong);
+            if (fields == null) {
+                return null;
+            }
+            if (tooLong) {
+                return new ImportRecord(recordLine, null, List.of(tooLongError()));
+            }
+            if (unterminated) {
+                return new ImportRecord(recordLine, null,
+                        List.of("Quoted field is not closed before the end of the file"));
+            }
+            if (fields.size() != columnCount) {
+                return new ImportRecord(recordLine, null,
+                        List.of("Expected " + columnCount + " fields but found " + fields.size()));
+            }
+            return toRecord(recordLine, fields);
+        }
+
+        private void readHeader() throws IOException {
+            columns = new HashMap<>();
+            List<String> header = readFields();
+            if (header == null) {
+                return;
+            }
+            if (tooLong) {
+                throw new InvalidRequestException("CSV header is longer than " + maxRecordLength + " characters");
+            }
+            columnCount = header.size();
+            Map<String, String> knownColumns = new HashMap<>();
+            for (String column : REQUIRED_COLUMNS) {
+                knownColumns.put(column.toLowerCase(Locale.ROOT), column);
+            }
+            for (String column : OPTIONAL_COLUMNS) {
+                knownColumns.put(column.toLowerCase(Locale.ROOT), column);
+            }
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheet exports often start with a byte order mark
+                String name = (i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i)).trim();
+                String column = knownColumns.get(name.toLowerCase(Locale.ROOT));
+                if (column != null) {
+                    columns.put(column, i);
+                }
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream()
+                    .filter(column -> !columns.containsKey(column))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new InvalidRequestException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+        }
+
+        private ImportRecord toRecord(long recordLine, List<String> fields) {
+            List<String> errors = new ArrayList<>();
+            ProductDTO product = ProductDTO.builder()
+                    .productId(parse(fields, "productId", UUID::fromString, errors))
+                    .name(text(fields, "name"))
+                    .description(text(fields, "description"))
+                    .category(text(fields, "category"))
+                    .price(parse(fields, "price", BigDecimal::new, errors))
+                    .availableStock(parse(fields, "availableStock", Integer::valueOf, errors))
+                    .build();
+            return new ImportRecord(recordLine, product, errors);
+        }
+
+        private String text(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = fields.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private <T> T parse(List<String> fields, String column, Function<String, T> parser, List<String> errors) {
+            String value = text(fields, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (IllegalArgumentException e) {
+                errors.add("Invalid " + column + ": " + value);
+                return null;
+            }
+        }
+
+        /**
+         * The fields of the next record, which may span lines inside quotes, or {@code null} at the end of the file.
+         * A record that runs past {@code maxRecordLength} characters sets {@code tooLong} and is skipped up to the
+         * next line break, quoted or not.
+         */
+        private List<String> readFields() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            unterminated = false;
+            tooLong = false;
+            List<String> fields = new ArrayList<>(Math.max(columnCount, 1));
+            field.setLength(0);
+            boolean quoted = false;
+            long start = charactersRead - 1;
+            while (true) {
+                if (charactersRead - start > maxRecordLength && c != '\n' && c != '\r' && c != -1) {
+                    tooLong = true;
+                    skipLine(c);
+                    return fields;
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        unterminated = true;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c == '"') {
+                            field.append('"');
+                            c = read();
+                        } else {
+                            quoted = false;
+                        }
+                        continue;
+                    }
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                    c = read();
+                    continue;
+                }
+                if (c == '\r') {
+                    c = read();
+                    if (c != '\n' && c != -1) {
+                        field.append('\r');
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == -1) {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void skipLine(int c) throws IOException {
+            while (c != '\n' && c != -1) {
+                c = read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+        }
+    }
+}
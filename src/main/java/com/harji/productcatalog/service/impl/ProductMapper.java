@@ -0,0 +1,155 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.repository.ProductChange;
+import com.harji.productcatalog.repository.ProductPatchResult;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maps between the {@link Product} entity and its API representation.
+ */
+final class ProductMapper {
+
+    static final String NAME = "name";
+    static final String DESCRIPTION = "description";
+    static final String CATEGORY = "category";
+    static final String PRICE = "price";
+    static final String AVAILABLE_STOCK = "availableStock";
+
+    // The mapper is static, so its timer is registered globally; Spring Boot adds its registry to the global one
+    private static final Timer TO_DTO_TIMER = Timer.builder("product.mapping")
+            .description("Time to map a product entity to its DTO")
+            .register(Metrics.globalRegistry);
+
+    private ProductMapper() {
+    }
+
+    static Product toEntity(ProductDTO productDTO) {
+        return Product.builder()
+                .name(productDTO.getName())
+                .description(productDTO.getDescription())
+                .category(productDTO.getCategory())
+                .price(productDTO.getPrice())
+                .availableStock(productDTO.getAvailableStock())
+                .build();
+    }
+
+    static ProductDTO toDTO(Product product) {
+        return TO_DTO_TIMER.record(() -> ProductDTO.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .availableStock(product.getAvailableStock())
+                .lastUpdated(product.getLastUpdated())
+                .build());
+    }
+
+    static ProductDTO toDTO(ProductPatchResult result) {
+        return ProductDTO.builder()
+                .productId(result.getProductId())
+                .name(result.getName())
+                .description(result.getDescription())
+                .category(result.getCategory())
+                .price(result.getPrice())
+                .availableStock(result.getAvailableStock())
+                .lastUpdated(result.getLastUpdated())
+                .build();
+    }
+
+    static ProductDTO toDTO(ProductChange change) {
+        return ProductDTO.builder()
+                .productId(change.getProductId())
+                .name(change.getName())
+                .description(change.getDescription())
+                .category(change.getCategory())
+                .price(change.getPrice())
+                .availableStock(change.getAvailableStock())
+                .lastUpdated(change.getLastUpdated())
+                .build();
+    }
+
+    static Set<String> changedFields(ProductPatchResult result) {
+        Set<String> changedFields = new LinkedHashSet<>();
+        if (result.getNameChanged()) {
+            changedFields.add(NAME);
+        }
+        if (result.getDescriptionChanged()) {
+            changedFields.add(DESCRIPTION);
+        }
+        if (result.getCategoryChanged()) {
+            changedFields.add(CATEGORY);
+        }
+        if (result.getPriceChanged()) {
+            changedFields.add(PRICE);
+        }
+        if (result.getAvailableStockChanged()) {
+            changedFields.add(AVAILABLE_STOCK);
+        }
+        return changedFields;
+    }
+
+    /**
+     * Copies the updatable fields onto the entity, setting only those whose value differs, and returns the names
+     * of the changed fields in declaration order. Prices are compared by value, so 10.5 and 10.50 are equal.
+     */
+    static Set<String> updateFields(Product product, ProductDTO productDTO) {
+        Set<String> changedFields = new LinkedHashSet<>();
+        if (!Objects.equals(product.getName(), productDTO.getName())) {
+            product.setName(productDTO.getName());
+            changedFields.add(NAME);
+        }
+        if (!Objects.equals(product.getDescription(), productDTO.getDescription())) {
+            product.setDescription(productDTO.getDescription());
+            changedFields.add(DESCRIPTION);
+        }
+        if (!Objects.equals(product.getCategory(), productDTO.getCategory())) {
+            product.setCategory(productDTO.getCategory());
+            changedFields.add(CATEGORY);
+        }
+        if (!samePrice(product.getPrice(), productDTO.getPrice())) {
+            product.setPrice(productDTO.getPrice());
+            changedFields.add(PRICE);
+        }
+        if (!Objects.equals(product.getAvailableStock(), productDTO.getAvailableStock())) {
+            product.setAvailableStock(productDTO.getAvailableStock());
+            changedFields.add(AVAILABLE_STOCK);
+        }
+        return changedFields;
+    }
+
+    /**
+     * The id, last update time and only the given fields of the product.
+     */
+    static ProductDTO toDelta(ProductDTO product, Set<String> changedFields) {
+        ProductDTO.ProductDTOBuilder delta = ProductDTO.builder()
+                .productId(product.getProductId())
+                .lastUpdated(product.getLastUpdated());
+        for (String field : changedFields) {
+            switch (field) {
+                case NAME -> delta.name(product.getName());
+                case DESCRIPTION -> delta.description(product.getDescription());
+                case CATEGORY -> delta.category(product.getCategory());
+                case PRICE -> delta.price(product.getPrice());
+                case AVAILABLE_STOCK -> delta.availableStock(product.getAvailableStock());
+                default -> throw new IllegalArgumentException("Unknown product field: " + field);
+            }
+        }
+        return delta.build();
+    }
+
+    private static boolean samePrice(BigDecimal current, BigDecimal requested) {
+        if (current == null || requested == null) {
+            return current == requested;
+        }
+        return current.compareTo(requested) == 0;
+    }
+}
@@ -0,0 +1,639 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, category and description.
+ * <p>
+ * Every indexed version of a product gets a new, monotonically increasing document number, so
+ * posting lists stay sorted by appending. Updating a product marks its previous document dead
+ * instead of rewriting posting lists; dead documents are skipped at query time and purged by
+ * {@link #compact()} once they outnumber a fraction of the live ones. Compaction runs on its own
+ * thread and builds the new index a chunk at a time under the read lock, so searches and writes
+ * carry on meanwhile; the write lock is only taken to swap it in, together with the writes made
+ * since it started.
+ * <p>
+ * Queries are AND-ed across tokens. The last token also matches as a prefix to support
+ * type-ahead, expanding to the terms found in the most documents, and hits are ranked by the sum
+ * of idf-weighted field scores. Posting lists are merged through a heap, and a list is dropped
+ * from the merge as soon as even its best weight could no longer reach the current top hits.
+ */
+public class ProductSearchIndex {
+
+    static final float NAME_WEIGHT = 3.0f;
+    static final float CATEGORY_WEIGHT = 2.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    static final float PREFIX_MATCH_FACTOR = 0.8f;
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final int COMPACTION_CHUNK = 4096;
+
+    private final int maxPrefixExpansions;
+    private final double compactionThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock compactionLock = new ReentrantLock();
+
+    private NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private Map<UUID, Integer> documentByProduct = new HashMap<>();
+    private BitSet deadDocuments = new BitSet();
+    private UUID[] productIds = new UUID[1024];
+    private String[] names = new String[1024];
+    private String[] categories = new String[1024];
+    private LocalDateTime[] versions = new LocalDateTime[1024];
+    private int documentCount;
+    private int deadCount;
+    private boolean compactionScheduled;
+    /**
+     * Terms written while a compaction is running, whose new postings it has to carry over; null otherwise.
+     */
+    private Set<String> termsWrittenDuringCompaction;
+
+    public ProductSearchIndex(int maxPrefixExpansions, double compactionThreshold) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Adds or replaces a product. A version older than the one already indexed is ignored, so a
+     * bulk rebuild racing with live updates never resurrects stale data.
+     */
+    public void index(ProductDTO product) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addTerms(termWeights, product.getName(), NAME_WEIGHT);
+        addTerms(termWeights, product.getCategory(), CATEGORY_WEIGHT);
+        addTerms(termWeights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentByProduct.get(product.getProductId());
+            if (previous != null) {
+                LocalDateTime indexedVersion = versions[previous];
+                if (indexedVersion != null && product.getLastUpdated() != null
+                        && product.getLastUpdated().isBefore(indexedVersion)) {
+                    return;
+                }
+                markDead(previous);
+            }
+
+            int document = newDocument(product);
+            documentByProduct.put(product.getProductId(), document);
+            for (Map.Entry<String, Float> entry : termWeights.entrySet()) {
+                postingsByTerm.computeIfAbsent(entry.getKey(), term -> new Postings()).add(document, entry.getValue());
+            }
+            if (termsWrittenDuringCompaction != null) {
+                termsWrittenDuringCompaction.addAll(termWeights.keySet());
+            }
+
+            if (!compactionScheduled && deadCount > 1024
+                    && deadCount > documentByProduct.size() * compactionThreshold) {
+                compactionScheduled = true;
+                Thread compactor = new Thread(this::compact, "product-search-index-compactor");
+                compactor.setDaemon(true);
+                compactor.start();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSearchHitDTO> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = documentByProduct.size();
+            List<TokenMatch> matches = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                TokenMatch match = match(tokens.get(i), i == tokens.size() - 1, live);
+                if (match.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(match);
+            }
+            // Drive the intersection from the most selective token
+            matches.sort(Comparator.comparingLong(TokenMatch::size));
+
+            TokenMatch driver = matches.get(0);
+            float otherTokensMaxScore = 0f;
+            for (int i = 1; i < matches.size(); i++) {
+                otherTokensMaxScore += matches.get(i).maxScore();
+            }
+            PriorityQueue<ProductSearchHitDTO> top = new PriorityQueue<>(
+                    limit + 1, Comparator.comparingDouble(ProductSearchHitDTO::getScore));
+            float otherTokensBound = otherTokensMaxScore;
+            driver.forEachDocument(otherTokensMaxScore, (document, driverScore) -> {
+                float threshold = top.size() < limit ? Float.NEGATIVE_INFINITY : top.peek().getScore();
+                // Only look the document up in the other tokens' postings if it could still make the hits
+                if (driverScore + otherTokensBound > threshold && !deadDocuments.get(document)) {
+                    collect(document, driverScore, matches, top, limit);
+                }
+                return top.size() < limit ? Float.NEGATIVE_INFINITY : top.peek().getScore();
+            });
+
+            List<ProductSearchHitDTO> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(ProductSearchHitDTO::getScore).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops dead documents and renumbers the live ones, without holding up searches or writes
+     * while the compacted index is built.
+     */
+    public void compact() {
+        compactionLock.lock();
+        try {
+            compactConcurrently();
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Float> termWeights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void collect(int document, float driverScore, List<TokenMatch> matches,
+                         PriorityQueue<ProductSearchHitDTO> top, int limit) {
+        float score = driverScore;
+        for (int i = 1; i < matches.size(); i++) {
+            float tokenScore = matches.get(i).score(document);
+            if (tokenScore == 0f) {
+                return;
+            }
+            score += tokenScore;
+        }
+        if (top.size() < limit || score > top.peek().getScore()) {
+            top.add(new ProductSearchHitDTO(productIds[document], names[document], categories[document], score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+    }
+
+    private TokenMatch match(String token, boolean allowPrefix, int live) {
+        List<Postings> postings = new ArrayList<>();
+        List<Float> boosts = new ArrayList<>();
+        Postings exact = postingsByTerm.get(token);
+        if (exact != null) {
+            postings.add(exact);
+            boosts.add(idf(exact, live));
+        }
+        if (allowPrefix && token.length() >= MIN_PREFIX_LENGTH) {
+            // Keep the terms in the most documents, which are the likeliest completions of what is being typed
+            PriorityQueue<Postings> expansions = new PriorityQueue<>(
+                    maxPrefixExpansions + 1, Comparator.comparingInt(Postings::size));
+            Map<String, Postings> completions = postingsByTerm.subMap(token, false, token + Character.MAX_VALUE, false);
+            for (Postings candidate : completions.values()) {
+                if (expansions.size() < maxPrefixExpansions) {
+                    expansions.add(candidate);
+                } else if (maxPrefixExpansions > 0 && candidate.size > expansions.peek().size) {
+                    expansions.poll();
+                    expansions.add(candidate);
+                }
+            }
+            for (Postings expansion : expansions) {
+                postings.add(expansion);
+                boosts.add(idf(expansion, live) * PREFIX_MATCH_FACTOR);
+            }
+        }
+        return new TokenMatch(postings, boosts);
+    }
+
+    private static float idf(Postings postings, int live) {
+        return (float) Math.log(1.0 + (double) Math.max(live, 1) / Math.max(postings.size, 1));
+    }
+
+    private int newDocument(ProductDTO product) {
+        if (documentCount == productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        int document = documentCount++;
+        productIds[document] = product.getProductId();
+        names[document] = product.getName();
+        categories[document] = product.getCategory();
+        versions[document] = product.getLastUpdated();
+        return document;
+    }
+
+    private void markDead(int document) {
+        deadDocuments.set(document);
+        deadCount++;
+        names[document] = null;
+        categories[document] = null;
+    }
+
+    private void compactConcurrently() {
+        int cut;
+        BitSet deadAtCut;
+        lock.writeLock().lock();
+        try {
+            cut = documentCount;
+            deadAtCut = (BitSet) deadDocuments.clone();
+            termsWrittenDuringCompaction = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Documents below the cut are only ever marked dead from here on, and their postings only appended to
+        int[] remap = new int[cut];
+        int live = 0;
+        for (int document = 0; document < cut; document++) {
+            remap[document] = deadAtCut.get(document) ? -1 : live++;
+        }
+        int capacity = Math.max(1024, live + live / 2);
+        UUID[] newProductIds = new UUID[capacity];
+        String[] newNames = new String[capacity];
+        String[] newCategories = new String[capacity];
+        LocalDateTime[] newVersions = new LocalDateTime[capacity];
+        Map<UUID, Integer> newDocumentByProduct = new HashMap<>(capacity * 4 / 3);
+        for (int start = 0; start < cut; start += COMPACTION_CHUNK) {
+            lock.readLock().lock();
+            try {
+                for (int document = start; document < Math.min(cut, start + COMPACTION_CHUNK); document++) {
+                    int target = remap[document];
+                    if (target >= 0) {
+                        newProductIds[target] = productIds[document];
+                        newNames[target] = names[document];
+                        newCategories[target] = categories[document];
+                        newVersions[target] = versions[document];
+                        newDocumentByProduct.put(productIds[document], target);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        NavigableMap<String, Postings> newPostingsByTerm = new TreeMap<>();
+        String lastTerm = null;
+        boolean more = true;
+        while (more) {
+            lock.readLock().lock();
+            try {
+                Map<String, Postings> remaining = lastTerm == null
+                        ? postingsByTerm : postingsByTerm.tailMap(lastTerm, false);
+                int terms = 0;
+                more = false;
+                for (Map.Entry<String, Postings> entry : remaining.entrySet()) {
+                    if (terms++ == COMPACTION_CHUNK) {
+                        more = true;
+                        break;
+                    }
+                    Postings compacted = entry.getValue().compactedBelow(cut, remap);
+                    if (compacted.size > 0) {
+                        newPostingsByTerm.put(entry.getKey(), compacted);
+                    }
+                    lastTerm = entry.getKey();
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Carry over what was written while the compacted index was being built
+            int shift = cut - live;
+            int count = documentCount - shift;
+            if (count > newProductIds.length) {
+                int grown = Math.max(count, newProductIds.length * 2);
+                newProductIds = Arrays.copyOf(newProductIds, grown);
+                newNames = Arrays.copyOf(newNames, grown);
+                newCategories = Arrays.copyOf(newCategories, grown);
+                newVersions = Arrays.copyOf(newVersions, grown);
+            }
+            BitSet newDeadDocuments = new BitSet();
+            for (int document = deadDocuments.nextSetBit(0); document >= 0 && document < cut;
+                 document = deadDocuments.nextSetBit(document + 1)) {
+                if (remap[document] >= 0) {
+                    newDeadDocuments.set(remap[document]);
+                }
+            }
+            for (int document = cut; document < documentCount; document++) {
+                int target = document - shift;
+                newProductIds[target] = productIds[document];
+                newNames[target] = names[document];
+                newCategories[target] = categories[document];
+                newVersions[target] = versions[document];
+                if (deadDocuments.get(document)) {
+                    newDeadDocuments.set(target);
+                } else {
+                    newDocumentByProduct.put(productIds[document], target);
+                }
+            }
+            for (String term : termsWrittenDuringCompaction) {
+                Postings postings = postingsByTerm.get(term);
+                Postings target = newPostingsByTerm.get(term);
+                for (int i = postings.firstAtOrAfter(cut); i < postings.size; i++) {
+                    if (target == null) {
+                        target = new Postings();
+                        newPostingsByTerm.put(term, target);
+                    }
+                    target.add(postings.documents[i] - shift, postings.weights[i]);
+                }
+            }
+
+            productIds = newProductIds;
+            names = newNames;
+            categories = newCategories;
+            versions = newVersions;
+            documentCount = count;
+            documentByProduct = newDocumentByProduct;
+            deadDocuments = newDeadDocuments;
+            deadCount = newDeadDocuments.cardinality();
+            postingsByTerm = newPostingsByTerm;
+            termsWrittenDuringCompaction = null;
+            compactionScheduled = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Document numbers (ascending) and field-weighted term frequencies for one term, with the
+     * highest weight of the whole list and of each block of {@link #BLOCK_SIZE} entries.
+     */
+    private static final class Postings {
+
+        static final int BLOCK_SIZE = 128;
+
+        private int[] documents = new int[4];
+        private float[] weights = new float[4];
+        private float[] blockMaxWeights = new float[1];
+        private int size;
+        private float maxWeight;
+
+        void add(int document, float weight) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            int block = size / BLOCK_SIZE;
+            if (block == blockMaxWeights.length) {
+                blockMaxWeights = Arrays.copyOf(blockMaxWeights, block * 2);
+            }
+            documents[size] = document;
+            weights[size] = weight;
+            size++;
+            blockMaxWeights[block] = Math.max(blockMaxWeights[block], weight);
+            maxWeight = Math.max(maxWeight, weight);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int firstAtOrAfter(int document) {
+            return firstAtOrAfter(0, document);
+        }
+
+        /**
+         * Position of the first entry from {@code from} on for {@code document} or a later one, galloping
+         * ahead first so that short moves stay cheap.
+         */
+        int firstAtOrAfter(int from, int document) {
+            int step = 1;
+            int high = from;
+            while (high < size && documents[high] < document) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(documents, from, Math.min(high + 1, size), document);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        /**
+         * The entries for documents below {@code cut} that {@code remap} keeps, renumbered.
+         */
+        Postings compactedBelow(int cut, int[] remap) {
+            Postings compacted = new Postings();
+            for (int i = 0; i < size && documents[i] < cut; i++) {
+                int document = remap[documents[i]];
+                if (document >= 0) {
+                    compacted.add(document, weights[i]);
+                }
+            }
+            return compacted;
+        }
+    }
+
+    @FunctionalInterface
+    private interface DocumentScoreConsumer {
+
+        /**
+         * Takes a matching document and returns the score a later document has to beat to still make the hits.
+         */
+        float accept(int document, float score);
+    }
+
+    /**
+     * Union of the postings a single query token expands to, each with its idf boost.
+     */
+    private static final class TokenMatch {
+
+        private final Postings[] lists;
+        private final float[] boosts;
+        private final float[] maxScores;
+        private final int[] scoreCursors;
+        private final long size;
+
+        TokenMatch(List<Postings> postings, List<Float> boosts) {
+            this.lists = postings.toArray(Postings[]::new);
+            this.boosts = new float[lists.length];
+            this.maxScores = new float[lists.length];
+            this.scoreCursors = new int[lists.length];
+            long total = 0;
+            for (int i = 0; i < lists.length; i++) {
+                this.boosts[i] = boosts.get(i);
+                this.maxScores[i] = lists[i].maxWeight * this.boosts[i];
+                total += lists[i].size;
+            }
+            this.size = total;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long size() {
+            return size;
+        }
+
+        float maxScore() {
+            float max = 0f;
+            for (float score : maxScores) {
+                max = Math.max(max, score);
+            }
+            return max;
+        }
+
+        /**
+         * The best score of {@code document}, or 0 when it does not match. Documents have to be passed in
+         * ascending order: each list keeps a cursor that only moves forward.
+         */
+        float score(int document) {
+            float best = 0f;
+            for (int i = 0; i < lists.length; i++) {
+                Postings p = lists[i];
+                int cursor = scoreCursors[i];
+                if (cursor < p.size && p.documents[cursor] < document) {
+                    cursor = p.firstAtOrAfter(cursor + 1, document);
+                    scoreCursors[i] = cursor;
+                }
+                if (cursor < p.size && p.documents[cursor] == document) {
+                    best = Math.max(best, p.weights[cursor] * boosts[i]);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Visits the matching documents in ascending order, each once with its best score. A document
+         * scores the best of its lists, so entries whose weight, plus {@code otherTokensMaxScore}, can no
+         * longer beat the consumer's threshold cannot add a hit: blocks whose highest weight falls short
+         * are skipped, lists whose highest weight does are dropped, and the visit ends when no list is left.
+         */
+        void forEachDocument(float otherTokensMaxScore, DocumentScoreConsumer consumer) {
+            float threshold = Float.NEGATIVE_INFINITY;
+            if (lists.length == 1) {
+                Postings only = lists[0];
+                int i = 0;
+                while (i < only.size && maxScores[0] + otherTokensMaxScore > threshold) {
+                    i = skipBlocks(0, i, threshold - otherTokensMaxScore);
+                    if (i < only.size) {
+                        threshold = consumer.accept(only.documents[i], only.weights[i] * boosts[0]);
+                        i++;
+                    }
+                }
+                return;
+            }
+            // Min-heap of list indexes ordered by the document under each list's cursor; a list that is
+            // used up or dropped sinks to the bottom with Integer.MAX_VALUE
+            int[] cursors = new int[lists.length];
+            int[] heads = new int[lists.length];
+            int[] heap = new int[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                heads[i] = lists[i].size > 0 ? lists[i].documents[0] : Integer.MAX_VALUE;
+                heap[i] = i;
+            }
+            for (int i = heap.length / 2 - 1; i >= 0; i--) {
+                siftDown(heap, i, heads);
+            }
+            while (heads[heap[0]] != Integer.MAX_VALUE) {
+                int document = heads[heap[0]];
+                float best = 0f;
+                boolean scored = false;
+                do {
+                    int list = heap[0];
+                    int cursor = cursors[list];
+                    if (maxScores[list] + otherTokensMaxScore > threshold) {
+                        best = Math.max(best, lists[list].weights[cursor] * boosts[list]);
+                        scored = true;
+                        cursor = skipBlocks(list, cursor + 1, threshold - otherTokensMaxScore);
+                    } else {
+                        cursor = lists[list].size;
+                    }
+                    cursors[list] = cursor;
+                    heads[list] = cursor < lists[list].size ? lists[list].documents[cursor] : Integer.MAX_VALUE;
+                    siftDown(heap, 0, heads);
+                } while (heads[heap[0]] == document);
+                if (scored) {
+                    threshold = consumer.accept(document, best);
+                }
+            }
+        }
+
+        /**
+         * Moves {@code cursor} past the blocks, starting at it, whose entries all score at most {@code minScore}.
+         */
+        private int skipBlocks(int list, int cursor, float minScore) {
+            Postings p = lists[list];
+            while (cursor < p.size && cursor % Postings.BLOCK_SIZE == 0
+                    && p.blockMaxWeights[cursor / Postings.BLOCK_SIZE] * boosts[list] <= minScore) {
+                cursor += Postings.BLOCK_SIZE;
+            }
+            return cursor;
+        }
+
+        private static void siftDown(int[] heap, int index, int[] heads) {
+            int list = heap[index];
+            int document = heads[list];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= heap.length) {
+                    break;
+                }
+                if (child + 1 < heap.length && heads[heap[child + 1]] < heads[heap[child]]) {
+                    child++;
+                }
+                if (heads[heap[child]] >= document) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = list;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.ProductSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link ProductSearchIndex} in step with the catalog: fully built from the database in
+ * the background at startup, then updated incrementally by product writes after they commit.
+ */
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchServiceImpl.class);
+
+    private final ProductSearchIndex index;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public ProductSearchServiceImpl(ProductRepository productRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.search.enabled:true}") boolean enabled,
+                                    @Value("${app.search.max-prefix-expansions:64}") int maxPrefixExpansions,
+                                    @Value("${app.search.compaction-threshold:0.5}") double compactionThreshold) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.index = new ProductSearchIndex(maxPrefixExpansions, compactionThreshold);
+    }
+
+    @Override
+    public List<ProductSearchHitDTO> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @Override
+    public void index(ProductDTO productDTO) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.index(productDTO);
+                }
+            });
+        } else {
+            index.index(productDTO);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::buildIndex, "product-search-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void buildIndex() {
+        long start = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductDTO> products = productRepository.streamAllProductDTOs()) {
+                    products.forEach(index::index);
+                }
+            });
+            log.info("Built product search index with {} products in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build product search index: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,42 +1,124 @@
 package com.harji.productcatalog.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.config.CacheConfig;
 import com.harji.productcatalog.domain.Product;
 import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.BatchItemResultDTO;
+import com.harji.productcatalog.dto.BatchResultDTO;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.dto.ProductImportRejectionDTO;
+import com.harji.productcatalog.dto.ProductImportResultDTO;
+import com.harji.productcatalog.dto.ProductPageDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.dto.StockLevelDTO;
+import com.harji.productcatalog.exception.InsufficientStockException;
 import com.harji.productcatalog.exception.ProductNotFoundException;
+import com.harji.productcatalog.repository.ProductImportResult;
+import com.harji.productcatalog.repository.ProductPatchResult;
 import com.harji.productcatalog.repository.ProductRepository;
-import com.harji.productcatalog.service.EventPublisherService;
+import com.harji.productcatalog.repository.ProductSpecifications;
+import com.harji.productcatalog.repository.StockLevel;
+import com.harji.productcatalog.repository.VersionedProduct;
+import com.harji.productcatalog.service.HotStockService;
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import com.harji.productcatalog.service.ProductSearchService;
 import com.harji.productcatalog.service.ProductService;
+import com.harji.productcatalog.service.impl.ProductImportReader.ImportRecord;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Each public method is observed as {@code product.service}, tagged by method: a latency timer, and a span
+ * once a tracer is configured.
+ */
 @Service
+@Observed(name = "product.service")
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    // Column sizes of the products table
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_CATEGORY_LENGTH = 255;
+    private static final int PRICE_PRECISION = 10;
+    private static final int PRICE_SCALE = 2;
+
     private final ProductRepository productRepository;
-    private final EventPublisherService eventPublisherService;
+    private final ProductEventOutboxService productEventOutboxService;
+    private final ProductSearchService productSearchService;
+    private final HotStockService hotStockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.products.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${app.products.import.chunk-size:5000}")
+    private int importChunkSize;
+
+    @Value("${app.products.import.max-record-length:65536}")
+    private int maxRecordLength;
+
+    @Value("${app.products.import.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    @Value("${app.products.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     @Override
     @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
-        log.info("Creating new product: {}", productDTO.getName());
+        log.debug("Creating new product: {}", productDTO.getName());
 
-        Product product = mapToEntity(productDTO);
+        Product product = ProductMapper.toEntity(productDTO);
         Product savedProduct = productRepository.save(product);
 
-        ProductDTO savedProductDTO = mapToDTO(savedProduct);
-        eventPublisherService.publishProductEvent(ProductEventType.PRODUCT_CREATED, savedProductDTO);
+        ProductDTO savedProductDTO = ProductMapper.toDTO(savedProduct);
+        onProductChanged(ProductEventType.PRODUCT_CREATED, savedProductDTO);
+        cacheAfterCommit(savedProductDTO, savedProduct.getVersion());
 
         return savedProductDTO;
     }
@@ -44,66 +126,626 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ProductDTO updateProduct(UUID productId, ProductDTO productDTO) {
-        log.info("Updating product with ID: {}", productId);
+        log.debug("Updating product with ID: {}", productId);
 
         Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
 
-        updateProductFields(existingProduct, productDTO);
+        Set<String> changedFields = ProductMapper.updateFields(existingProduct, productDTO);
+        if (changedFields.isEmpty()) {
+            log.debug("Product {} is unchanged, skipping update", productId);
+            onProductUnchanged(existingProduct);
+            ProductDTO existingProductDTO = ProductMapper.toDTO(existingProduct);
+            cacheAfterCommit(existingProductDTO, existingProduct.getVersion());
+            return existingProductDTO;
+        }
+
         Product updatedProduct = productRepository.save(existingProduct);
+        // Flush so @UpdateTimestamp and @Version are applied before the DTO (and its ETag) is built
+        productRepository.flush();
 
-        ProductDTO updatedProductDTO = mapToDTO(updatedProduct);
-        eventPublisherService.publishProductEvent(ProductEventType.PRODUCT_UPDATED, updatedProductDTO);
+        ProductDTO updatedProductDTO = ProductMapper.toDTO(updatedProduct);
+        onProductUpdated(updatedProductDTO, updatedProduct.getVersion(), changedFields);
+        cacheAfterCommit(updatedProductDTO, updatedProduct.getVersion());
 
         return updatedProductDTO;
     }
 
+    @Override
+    @Transactional
+    public ProductDTO patchProduct(UUID productId, ProductDTO changes, Set<String> fields) {
+        log.debug("Patching {} of product with ID: {}", fields, productId);
+
+        Optional<ProductPatchResult> patched = fields.isEmpty()
+                ? Optional.empty()
+                : productRepository.patch(productId, changes, fields, LocalDateTime.now());
+        if (patched.isEmpty()) {
+            // Nothing was written: the product is missing or already matches the patch
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            log.debug("Product {} is unchanged, skipping update", productId);
+            if (fields.contains(ProductMapper.AVAILABLE_STOCK)) {
+                onProductUnchanged(product);
+            }
+            ProductDTO productDTO = ProductMapper.toDTO(product);
+            cacheAfterCommit(productDTO, product.getVersion());
+            return productDTO;
+        }
+
+        ProductDTO patchedProductDTO = ProductMapper.toDTO(patched.get());
+        onProductUpdated(patchedProductDTO, patched.get().getVersion(), ProductMapper.changedFields(patched.get()));
+        cacheAfterCommit(patchedProductDTO, patched.get().getVersion());
+
+        return patchedProductDTO;
+    }
+
+    @Override
+    public BatchResultDTO createProducts(List<ProductDTO> productDTOs) {
+        log.debug("Creating {} products in batch", productDTOs.size());
+
+        return processInChunks(productDTOs, this::createChunk);
+    }
+
+    @Override
+    public BatchResultDTO updateProducts(List<ProductDTO> productDTOs) {
+        log.debug("Updating {} products in batch", productDTOs.size());
+
+        return processInChunks(productDTOs, this::updateChunk);
+    }
+
+    /**
+     * Reads the file one record at a time and imports the valid records in chunks of {@code importChunkSize}.
+     * Only the current chunk is held in memory, and progress is logged after every chunk.
+     */
+    @Override
+    public ProductImportResultDTO importProducts(InputStream input, ProductFileFormat format) {
+        log.info("Importing products from {} input", format);
+
+        ImportTotals totals = new ImportTotals();
+        try (ProductImportReader reader = ProductImportReader.open(input, format, objectMapper,
+                maxRecordLength)) {
+            List<ImportRecord> chunk = new ArrayList<>(importChunkSize);
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                totals.records++;
+                List<String> errors = record.errors().isEmpty() ? validateForImport(record.product()) : record.errors();
+                if (!errors.isEmpty()) {
+                    totals.reject(record, errors);
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == importChunkSize) {
+                    importChunk(chunk, totals);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, totals);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read product import", e);
+        }
+
+        log.info("Product import finished: {}", totals);
+        return ProductImportResultDTO.builder()
+                .records(totals.records)
+                .created(totals.created)
+                .updated(totals.updated)
+                .unchanged(totals.unchanged)
+                .rejected(totals.rejected)
+                .rejections(totals.rejections)
+                .build();
+    }
+
+    @Override
+    public StockLevelDTO reserveStock(UUID productId, int quantity) {
+        log.debug("Reserving {} units of product {}", quantity, productId);
+
+        if (hotStockService.isHot(productId)) {
+            return hotStockService.reserve(productId, quantity);
+        }
+        return transactionTemplate.execute(status -> {
+            StockLevel stockLevel = productRepository.reserveStock(productId, quantity, LocalDateTime.now())
+                    .orElseThrow(() -> {
+                        if (!productRepository.existsById(productId)) {
+                            return new ProductNotFoundException("Product not found with ID: " + productId);
+                        }
+                        return new InsufficientStockException(
+                                "Insufficient stock to reserve " + quantity + " units of product " + productId);
+                    });
+            return onStockChanged(stockLevel);
+        });
+    }
+
+    @Override
+    public StockLevelDTO releaseStock(UUID productId, int quantity) {
+        log.debug("Releasing {} units of product {}", quantity, productId);
+
+        if (hotStockService.isHot(productId)) {
+            return hotStockService.release(productId, quantity);
+        }
+        return transactionTemplate.execute(status -> {
+            StockLevel stockLevel = productRepository.releaseStock(productId, quantity, LocalDateTime.now())
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            return onStockChanged(stockLevel);
+        });
+    }
+
     @Override
     public ProductDTO getProductById(UUID productId) {
-        log.info("Fetching product with ID: {}", productId);
+        // Cached by hand rather than with @Cacheable so hot stock is overlaid on cache hits as well
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        VersionedProduct cached = cache == null ? null : cache.get(productId, VersionedProduct.class);
+        ProductDTO productDTO;
+        if (cached != null) {
+            productDTO = cached.product();
+        } else {
+            log.debug("Fetching product with ID: {}", productId);
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            VersionedProduct loaded = productRepository.findVersionedProductById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            // A write that committed after this read may already have cached its newer version, which must stay
+            cacheIfNewer(loaded);
+            productDTO = loaded.product();
+        }
+
+        return hotStockService.isHot(productId) ? hotStockService.withLiveStock(productDTO) : productDTO;
+    }
+
+    @Override
+    public Optional<LocalDateTime> getProductLastUpdated(UUID productId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        VersionedProduct cached = cache == null ? null : cache.get(productId, VersionedProduct.class);
+        Optional<LocalDateTime> lastUpdated = cached != null
+                ? Optional.ofNullable(cached.product().getLastUpdated())
+                : productRepository.findLastUpdatedById(productId);
+        if (lastUpdated.isEmpty() || !hotStockService.isHot(productId)) {
+            return lastUpdated;
+        }
+        return hotStockService.getLastChanged(productId)
+                .filter(lastChanged -> lastChanged.isAfter(lastUpdated.get()))
+                .or(() -> lastUpdated);
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        // The change feed position: a transaction that commits later always lands past it, whatever its timestamps
+        return productRepository.findLatestChangePosition().orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDTO getProducts(ProductSearchCriteria criteria, String cursor, int limit) {
+        log.debug("Fetching products page matching {} after cursor {} with limit {}", criteria, cursor, limit);
+
+        Specification<Product> specification = ProductSpecifications.matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(ProductCursor.decode(cursor, criteria).toSpecification());
+        }
+
+        // Fetch one extra row to learn whether another page follows without a count query
+        List<ProductDTO> products = productRepository.findProductDTOs(
+                specification, ProductSpecifications.sortBy(criteria), limit + 1);
+
+        String nextCursor = null;
+        if (products.size() > limit) {
+            products = products.subList(0, limit);
+            nextCursor = ProductCursor.of(criteria, products.get(limit - 1)).encode();
+        }
+
+        return ProductPageDTO.builder()
+                .products(products)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductDTO> consumer) {
+        log.debug("Streaming all products");
 
-        return mapToDTO(product);
+        try (Stream<ProductDTO> products = productRepository.streamAllProductDTOs()) {
+            products.forEach(consumer);
+        }
     }
 
     @Override
-    public List<ProductDTO> getAllProducts() {
-        log.info("Fetching all products");
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductSearchCriteria criteria, ProductFileFormat format, OutputStream output) {
+        log.info("Exporting products matching {} as {}", criteria, format);
+
+        long exported = 0;
+        try (Stream<ProductDTO> products = productRepository.streamProductDTOs(
+                ProductSpecifications.matching(criteria), ProductSpecifications.sortBy(criteria), exportFetchSize);
+             ProductExportWriter writer = ProductExportWriter.open(output, format, objectMapper)) {
+            Iterator<ProductDTO> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                exported++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write product export after " + exported + " products", e);
+        }
+
+        log.info("Product export finished: {} products", exported);
+        return exported;
+    }
+
+    /**
+     * Validates every item, then persists the valid ones in chunks of {@code batchChunkSize}, each in its own
+     * transaction so that Hibernate can flush a chunk as a single JDBC batch. A chunk that fails to commit is
+     * reported as failed item by item without affecting the chunks around it.
+     */
+    private BatchResultDTO processInChunks(List<ProductDTO> productDTOs,
+                                           Function<List<IndexedProduct>, List<BatchItemResultDTO>> chunkWriter) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[productDTOs.size()];
+        List<IndexedProduct> chunk = new ArrayList<>(batchChunkSize);
+
+        for (int index = 0; index < productDTOs.size(); index++) {
+            ProductDTO productDTO = productDTOs.get(index);
+            List<String> errors = validate(productDTO);
+            if (!errors.isEmpty()) {
+                results[index] = failure(index, productDTO, errors);
+                continue;
+            }
+            chunk.add(new IndexedProduct(index, productDTO));
+            if (chunk.size() == batchChunkSize) {
+                writeChunk(chunk, chunkWriter, results);
+                chunk = new ArrayList<>(batchChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkWriter, results);
+        }
+
+        int failed = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BatchItemResultDTO.Status.FAILED)
+                .count();
+        return BatchResultDTO.builder()
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void writeChunk(List<IndexedProduct> chunk,
+                            Function<List<IndexedProduct>, List<BatchItemResultDTO>> chunkWriter,
+                            BatchItemResultDTO[] results) {
+        try {
+            List<BatchItemResultDTO> chunkResults = transactionTemplate.execute(status -> chunkWriter.apply(chunk));
+            for (BatchItemResultDTO result : chunkResults) {
+                results[result.getIndex()] = result;
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch chunk of {} products: {}", chunk.size(), e.getMessage());
+            for (IndexedProduct item : chunk) {
+                results[item.index()] = failure(item.index(), item.productDTO(),
+                        List.of(Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName())));
+            }
+        }
+    }
+
+    private List<BatchItemResultDTO> createChunk(List<IndexedProduct> chunk) {
+        List<Product> products = new ArrayList<>(chunk.size());
+        for (IndexedProduct item : chunk) {
+            products.add(ProductMapper.toEntity(item.productDTO()));
+        }
+        // Ids come from the in-memory UUID generator, so the inserts are deferred and flushed as one batch
+        productRepository.saveAll(products);
+        productRepository.flush();
+
+        List<BatchItemResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductDTO savedProductDTO = ProductMapper.toDTO(products.get(i));
+            onProductChanged(ProductEventType.PRODUCT_CREATED, savedProductDTO);
+            results.add(success(chunk.get(i).index(), savedProductDTO, BatchItemResultDTO.Status.CREATED));
+        }
+        return results;
+    }
+
+    private List<BatchItemResultDTO> updateChunk(List<IndexedProduct> chunk) {
+        Set<UUID> productIds = chunk.stream()
+                .map(item -> item.productDTO().getProductId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Product> existingProducts = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        Map<IndexedProduct, Set<String>> updated = new LinkedHashMap<>();
+        List<BatchItemResultDTO> results = new ArrayList<>(chunk.size());
+        for (IndexedProduct item : chunk) {
+            if (item.productDTO().getProductId() == null) {
+                results.add(failure(item.index(), item.productDTO(), List.of("Product ID is required")));
+                continue;
+            }
+            Product product = existingProducts.get(item.productDTO().getProductId());
+            if (product == null) {
+                results.add(failure(item.index(), item.productDTO(),
+                        List.of("Product not found with ID: " + item.productDTO().getProductId())));
+                continue;
+            }
+            Set<String> changedFields = ProductMapper.updateFields(product, item.productDTO());
+            if (changedFields.isEmpty()) {
+                onProductUnchanged(product);
+                results.add(success(item.index(), item.productDTO(), BatchItemResultDTO.Status.UPDATED));
+                continue;
+            }
+            updated.put(item, changedFields);
+        }
+        // Dirty checking turns the modified entities into one batched UPDATE statement group
+        productRepository.flush();
+
+        for (Map.Entry<IndexedProduct, Set<String>> entry : updated.entrySet()) {
+            IndexedProduct item = entry.getKey();
+            Product product = existingProducts.get(item.productDTO().getProductId());
+            ProductDTO updatedProductDTO = ProductMapper.toDTO(product);
+            onProductUpdated(updatedProductDTO, product.getVersion(), entry.getValue());
+            cacheAfterCommit(updatedProductDTO, product.getVersion());
+            results.add(success(item.index(), updatedProductDTO, BatchItemResultDTO.Status.UPDATED));
+        }
+        return results;
+    }
+
+    /**
+     * Copies a chunk into the staging table and merges it into products in one transaction, together with its
+     * outbox events. A chunk that fails to commit is rejected as a whole without affecting the chunks around it.
+     */
+    private void importChunk(List<ImportRecord> chunk, ImportTotals totals) {
+        List<ProductDTO> products = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            ProductDTO productDTO = record.product();
+            products.add(productDTO.getProductId() != null
+                    ? productDTO
+                    : productDTO.toBuilder().productId(UUID.randomUUID()).build());
+        }
+
+        try {
+            List<ProductImportResult> merged = transactionTemplate.execute(status -> mergeImportChunk(products));
+            long created = merged.stream().filter(ProductImportResult::created).count();
+            totals.created += created;
+            totals.updated += merged.size() - created;
+            totals.unchanged += chunk.size() - merged.size();
+        } catch (RuntimeException e) {
+            log.error("Failed to import chunk of {} products starting on line {}: {}",
+                    chunk.size(), chunk.get(0).line(), e.getMessage());
+            List<String> errors = List.of(Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+            for (ImportRecord record : chunk) {
+                totals.reject(record, errors);
+            }
+        }
+        log.info("Product import progress: {}", totals);
+    }
+
+    private List<ProductImportResult> mergeImportChunk(List<ProductDTO> products) {
+        List<ProductImportResult> merged = productRepository.mergeImport(products, LocalDateTime.now());
+
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        for (ProductImportResult result : merged) {
+            ProductDTO productDTO = ProductMapper.toDTO(result);
+            if (result.created()) {
+                onProductChanged(ProductEventType.PRODUCT_CREATED, productDTO);
+                continue;
+            }
+            onProductUpdated(productDTO, result.getVersion(), ProductMapper.changedFields(result));
+            // Evicted rather than refreshed, so an import does not fill the cache with products nobody has asked for
+            if (cache != null) {
+                cache.evict(result.getProductId());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The DTO constraints plus the column sizes of the products table. A single write leaves those to the
+     * database, but in an import one oversized record would fail its whole chunk.
+     */
+    private List<String> validateForImport(ProductDTO productDTO) {
+        List<String> errors = new ArrayList<>(validate(productDTO));
+        if (productDTO == null) {
+            return errors;
+        }
+        if (exceedsLength(productDTO.getName(), MAX_NAME_LENGTH)) {
+            errors.add("Product name must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        if (exceedsLength(productDTO.getDescription(), MAX_DESCRIPTION_LENGTH)) {
+            errors.add("Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (exceedsLength(productDTO.getCategory(), MAX_CATEGORY_LENGTH)) {
+            errors.add("Category must be at most " + MAX_CATEGORY_LENGTH + " characters");
+        }
+        BigDecimal price = productDTO.getPrice();
+        if (price != null && price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).precision() > PRICE_PRECISION) {
+            errors.add("Price must be less than " + BigDecimal.TEN.pow(PRICE_PRECISION - PRICE_SCALE));
+        }
+        return errors;
+    }
+
+    private static boolean exceedsLength(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
 
-        return productRepository.findAll().stream()
-                .map(this::mapToDTO)
+    private List<String> validate(ProductDTO productDTO) {
+        if (productDTO == null) {
+            return List.of("Product is required");
+        }
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(productDTO);
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
                 .collect(Collectors.toList());
     }
 
-    private Product mapToEntity(ProductDTO productDTO) {
-        return Product.builder()
-                .name(productDTO.getName())
-                .description(productDTO.getDescription())
-                .category(productDTO.getCategory())
-                .price(productDTO.getPrice())
-                .availableStock(productDTO.getAvailableStock())
+    private BatchItemResultDTO success(int index, ProductDTO productDTO, BatchItemResultDTO.Status status) {
+        return BatchItemResultDTO.builder()
+                .index(index)
+                .productId(productDTO.getProductId())
+                .status(status)
+                .build();
+    }
+
+    private BatchItemResultDTO failure(int index, ProductDTO productDTO, List<String> errors) {
+        return BatchItemResultDTO.builder()
+                .index(index)
+                .productId(productDTO == null ? null : productDTO.getProductId())
+                .status(BatchItemResultDTO.Status.FAILED)
+                .errors(errors)
                 .build();
     }
 
-    private ProductDTO mapToDTO(Product product) {
-        return ProductDTO.builder()
-                .productId(product.getProductId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .category(product.getCategory())
-                .price(product.getPrice())
-                .availableStock(product.getAvailableStock())
-                .lastUpdated(product.getLastUpdated())
+    /**
+     * Propagates a product change to the event outbox, the search index and any hot stock counter.
+     */
+    private void onProductChanged(ProductEventType eventType, ProductDTO productDTO) {
+        productEventOutboxService.record(eventType, productDTO);
+        productSearchService.index(productDTO);
+        if (hotStockService.isHot(productDTO.getProductId())) {
+            hotStockService.reset(productDTO.getProductId(), productDTO.getAvailableStock());
+        }
+    }
+
+    /**
+     * Records a delta event with just the changed fields and propagates the change to the search index and hot
+     * stock counter only when the fields they hold were among them.
+     */
+    private void onProductUpdated(ProductDTO productDTO, Long version, Set<String> changedFields) {
+        productEventOutboxService.recordChanges(ProductMapper.toDelta(productDTO, changedFields), changedFields,
+                version, productDTO.getCategory());
+        if (changedFields.contains(ProductMapper.NAME) || changedFields.contains(ProductMapper.DESCRIPTION)
+                || changedFields.contains(ProductMapper.CATEGORY)) {
+            productSearchService.index(productDTO);
+        }
+        if (changedFields.contains(ProductMapper.AVAILABLE_STOCK) && hotStockService.isHot(productDTO.getProductId())) {
+            hotStockService.reset(productDTO.getProductId(), productDTO.getAvailableStock());
+        }
+    }
+
+    /**
+     * An update that matched the stored product writes nothing and publishes nothing. A hot counter is still
+     * reset to the requested stock, which the update sets even though it equals the last flushed value.
+     */
+    private void onProductUnchanged(Product product) {
+        if (hotStockService.isHot(product.getProductId())) {
+            hotStockService.reset(product.getProductId(), product.getAvailableStock());
+        }
+    }
+
+    /**
+     * Publishes a stock-only event and patches the cached product in place after commit, so hot products stay
+     * cached while their stock moves.
+     */
+    private StockLevelDTO onStockChanged(StockLevel stockLevel) {
+        productEventOutboxService.record(ProductEventType.PRODUCT_STOCK_CHANGED, ProductDTO.builder()
+                .productId(stockLevel.getProductId())
+                .availableStock(stockLevel.getAvailableStock())
+                .lastUpdated(stockLevel.getLastUpdated())
+                .build());
+
+        afterCommit(() -> patchCachedStock(stockLevel));
+
+        return StockLevelDTO.builder()
+                .productId(stockLevel.getProductId())
+                .availableStock(stockLevel.getAvailableStock())
+                .lastUpdated(stockLevel.getLastUpdated())
                 .build();
     }
 
-    private void updateProductFields(Product product, ProductDTO productDTO) {
-        product.setName(productDTO.getName());
-        product.setDescription(productDTO.getDescription());
-        product.setCategory(productDTO.getCategory());
-        product.setPrice(productDTO.getPrice());
-        product.setAvailableStock(productDTO.getAvailableStock());
+    /**
+     * Caches the product as written by the current transaction once it commits, or now outside one.
+     */
+    private void cacheAfterCommit(ProductDTO productDTO, long version) {
+        VersionedProduct written = new VersionedProduct(productDTO, version);
+        afterCommit(() -> cacheIfNewer(written));
+    }
+
+    /**
+     * Caches the product unless a later version of it is cached already. Readers and writers race to cache a
+     * product, and a reader may have loaded the row before a write that has since committed and cached its own.
+     * The comparison runs atomically on the Caffeine map behind the cache, so the newest version always stays.
+     */
+    private void cacheIfNewer(VersionedProduct product) {
+        ConcurrentMap<Object, VersionedProduct> products = cachedProducts();
+        if (products != null) {
+            products.merge(product.product().getProductId(), product,
+                    (cached, incoming) -> cached.version() >= incoming.version() ? cached : incoming);
+        }
+    }
+
+    /**
+     * Applies a stock change to the cached product. The change only describes the product completely on top of
+     * the version just before it; stock commits can get here out of order, and any other older entry is dropped
+     * rather than left with the wrong stock.
+     */
+    private void patchCachedStock(StockLevel stockLevel) {
+        ConcurrentMap<Object, VersionedProduct> products = cachedProducts();
+        if (products == null) {
+            return;
+        }
+        long version = stockLevel.getVersion();
+        products.computeIfPresent(stockLevel.getProductId(), (productId, cached) -> {
+            if (cached.version() >= version) {
+                return cached;
+            }
+            if (cached.version() != version - 1) {
+                return null;
+            }
+            return new VersionedProduct(cached.product().toBuilder()
+                    .availableStock(stockLevel.getAvailableStock())
+                    .lastUpdated(stockLevel.getLastUpdated())
+                    .build(), version);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<Object, VersionedProduct> cachedProducts() {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        return cache == null
+                ? null
+                : ((com.github.benmanes.caffeine.cache.Cache<Object, VersionedProduct>) cache.getNativeCache()).asMap();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record IndexedProduct(int index, ProductDTO productDTO) {
+    }
+
+    /**
+     * Running counts of an import and the rejections reported so far.
+     */
+    private final class ImportTotals {
+
+        private long records;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long rejected;
+        private final List<ProductImportRejectionDTO> rejections = new ArrayList<>();
+
+        void reject(ImportRecord record, List<String> errors) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(ProductImportRejectionDTO.builder()
+                        .line(record.line())
+                        .productId(record.product() == null ? null : record.product().getProductId())
+                        .errors(errors)
+                        .build());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return records + " records read, " + created + " created, " + updated + " updated, "
+                    + unchanged + " unchanged, " + rejected + " rejected";
+        }
     }
 }
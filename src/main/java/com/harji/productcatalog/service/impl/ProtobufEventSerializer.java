@@ -0,0 +1,286 @@
+package com.harji.productcatalog.service.impl;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.EventSerializer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Protocol Buffers event encoding following {@code src/main/proto/product_event.proto}.
+ * <p>
+ * Messages are encoded field by field with {@link CodedOutputStream} rather than through generated classes,
+ * which saves building an intermediate message object per event. The encoded size is computed first, so each
+ * event is written in one pass straight into an exact-size array: no growing buffers, trailing copy or
+ * intermediate strings. Fields holding their proto3 default are omitted, as a generated encoder would.
+ */
+@Component
+@ConditionalOnProperty(name = "app.event.serializer", havingValue = "protobuf")
+public class ProtobufEventSerializer implements EventSerializer {
+
+    public static final String CONTENT_TYPE = "application/x-protobuf; proto=harji.productcatalog.ProductEvent";
+
+    // ProductEvent
+    private static final int EVENT_TYPE = 1;
+    private static final int TIMESTAMP_MICROS = 2;
+    private static final int PRODUCT = 3;
+    private static final int CHANGED_FIELDS = 4;
+    private static final int VERSION = 5;
+
+    // Product
+    private static final int PRODUCT_ID = 1;
+    private static final int NAME = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int CATEGORY = 4;
+    private static final int PRICE_UNSCALED = 5;
+    private static final int PRICE_SCALE = 6;
+    private static final int AVAILABLE_STOCK = 7;
+    private static final int LAST_UPDATED_MICROS = 8;
+
+    private static final int UUID_BYTES = 16;
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    @Timed(value = "product.events.serialize", extraTags = {"format", "protobuf"})
+    public byte[] serialize(ProductEventDTO event) {
+        ProductDTO product = event.getProduct();
+        int productSize = product == null ? 0 : productSize(product);
+
+        int size = 0;
+        int eventType = eventTypeNumber(event.getEventType());
+        if (eventType != 0) {
+            size += CodedOutputStream.computeEnumSize(EVENT_TYPE, eventType);
+        }
+        if (event.getTimestamp() != null) {
+            size += CodedOutputStream.computeInt64Size(TIMESTAMP_MICROS, toMicros(event.getTimestamp()));
+        }
+        if (product != null) {
+            size += CodedOutputStream.computeTagSize(PRODUCT)
+                    + CodedOutputStream.computeUInt32SizeNoTag(productSize) + productSize;
+        }
+        if (event.getChangedFields() != null) {
+            for (String field : event.getChangedFields()) {
+                size += CodedOutputStream.computeStringSize(CHANGED_FIELDS, field);
+            }
+        }
+        if (event.getVersion() != null) {
+            size += CodedOutputStream.computeInt64Size(VERSION, event.getVersion());
+        }
+
+        byte[] payload = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(payload);
+        try {
+            if (eventType != 0) {
+                output.writeEnum(EVENT_TYPE, eventType);
+            }
+            if (event.getTimestamp() != null) {
+                output.writeInt64(TIMESTAMP_MICROS, toMicros(event.getTimestamp()));
+            }
+            if (product != null) {
+                output.writeTag(PRODUCT, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(productSize);
+                writeProduct(output, product);
+            }
+            if (event.getChangedFields() != null) {
+                for (String field : event.getChangedFields()) {
+                    output.writeString(CHANGED_FIELDS, field);
+                }
+            }
+            if (event.getVersion() != null) {
+                output.writeInt64(VERSION, event.getVersion());
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize event: " + e.getMessage(), e);
+        }
+        return payload;
+    }
+
+    @Override
+    public ProductEventDTO deserialize(byte[] payload) {
+        CodedInputStream input = CodedInputStream.newInstance(payload);
+        ProductEventDTO event = new ProductEventDTO();
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case EVENT_TYPE -> event.setEventType(eventType(input.readEnum()));
+                    case TIMESTAMP_MICROS -> event.setTimestamp(fromMicros(input.readInt64()));
+                    case PRODUCT -> {
+                        int limit = input.pushLimit(input.readRawVarint32());
+                        event.setProduct(readProduct(input));
+                        input.popLimit(limit);
+                    }
+                    case CHANGED_FIELDS -> {
+                        if (event.getChangedFields() == null) {
+                            event.setChangedFields(new ArrayList<>());
+                        }
+                        event.getChangedFields().add(input.readStringRequireUtf8());
+                    }
+                    case VERSION -> event.setVersion(input.readInt64());
+                    default -> input.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid protobuf event payload: " + e.getMessage(), e);
+        }
+        return event;
+    }
+
+    private static int productSize(ProductDTO product) {
+        int size = 0;
+        if (product.getProductId() != null) {
+            size += CodedOutputStream.computeTagSize(PRODUCT_ID) + 1 + UUID_BYTES;
+        }
+        size += stringSize(NAME, product.getName());
+        size += stringSize(DESCRIPTION, product.getDescription());
+        size += stringSize(CATEGORY, product.getCategory());
+        if (product.getPrice() != null) {
+            long unscaled = unscaled(product.getPrice());
+            if (unscaled != 0) {
+                size += CodedOutputStream.computeInt64Size(PRICE_UNSCALED, unscaled);
+            }
+            if (product.getPrice().scale() != 0) {
+                size += CodedOutputStream.computeInt32Size(PRICE_SCALE, product.getPrice().scale());
+            }
+        }
+        if (product.getAvailableStock() != null) {
+            size += CodedOutputStream.computeInt32Size(AVAILABLE_STOCK, product.getAvailableStock());
+        }
+        if (product.getLastUpdated() != null) {
+            size += CodedOutputStream.computeInt64Size(LAST_UPDATED_MICROS, toMicros(product.getLastUpdated()));
+        }
+        return size;
+    }
+
+    private static void writeProduct(CodedOutputStream output, ProductDTO product) throws IOException {
+        UUID productId = product.getProductId();
+        if (productId != null) {
+            // Written as two big-endian longs, so no 16-byte array is allocated per event
+            output.writeTag(PRODUCT_ID, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(UUID_BYTES);
+            output.writeFixed64NoTag(Long.reverseBytes(productId.getMostSignificantBits()));
+            output.writeFixed64NoTag(Long.reverseBytes(productId.getLeastSignificantBits()));
+        }
+        writeString(output, NAME, product.getName());
+        writeString(output, DESCRIPTION, product.getDescription());
+        writeString(output, CATEGORY, product.getCategory());
+        if (product.getPrice() != null) {
+            long unscaled = unscaled(product.getPrice());
+            if (unscaled != 0) {
+                output.writeInt64(PRICE_UNSCALED, unscaled);
+            }
+            if (product.getPrice().scale() != 0) {
+                output.writeInt32(PRICE_SCALE, product.getPrice().scale());
+            }
+        }
+        if (product.getAvailableStock() != null) {
+            output.writeInt32(AVAILABLE_STOCK, product.getAvailableStock());
+        }
+        if (product.getLastUpdated() != null) {
+            output.writeInt64(LAST_UPDATED_MICROS, toMicros(product.getLastUpdated()));
+        }
+    }
+
+    private static ProductDTO readProduct(CodedInputStream input) throws IOException {
+        ProductDTO product = new ProductDTO();
+        long priceUnscaled = 0;
+        int priceScale = 0;
+        boolean hasPrice = false;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case PRODUCT_ID -> {
+                    if (input.readRawVarint32() != UUID_BYTES) {
+                        throw new IOException("product_id must be " + UUID_BYTES + " bytes");
+                    }
+                    long mostSignificant = Long.reverseBytes(input.readRawLittleEndian64());
+                    long leastSignificant = Long.reverseBytes(input.readRawLittleEndian64());
+                    product.setProductId(new UUID(mostSignificant, leastSignificant));
+                }
+                case NAME -> product.setName(input.readStringRequireUtf8());
+                case DESCRIPTION -> product.setDescription(input.readStringRequireUtf8());
+                case CATEGORY -> product.setCategory(input.readStringRequireUtf8());
+                case PRICE_UNSCALED -> {
+                    priceUnscaled = input.readInt64();
+                    hasPrice = true;
+                }
+                case PRICE_SCALE -> {
+                    priceScale = input.readInt32();
+                    hasPrice = true;
+                }
+                case AVAILABLE_STOCK -> product.setAvailableStock(input.readInt32());
+                case LAST_UPDATED_MICROS -> product.setLastUpdated(fromMicros(input.readInt64()));
+                default -> input.skipField(tag);
+            }
+        }
+        if (hasPrice) {
+            product.setPrice(BigDecimal.valueOf(priceUnscaled, priceScale));
+        }
+        return product;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static long unscaled(BigDecimal price) {
+        BigInteger unscaled = price.unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            throw new IllegalStateException("Price " + price + " does not fit the protobuf price encoding");
+        }
+        return unscaled.longValue();
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static int eventTypeNumber(ProductEventType eventType) {
+        if (eventType == null) {
+            return 0;
+        }
+        return switch (eventType) {
+            case PRODUCT_CREATED -> 1;
+            case PRODUCT_UPDATED -> 2;
+            case PRODUCT_STOCK_CHANGED -> 3;
+        };
+    }
+
+    private static ProductEventType eventType(int number) {
+        return switch (number) {
+            case 1 -> ProductEventType.PRODUCT_CREATED;
+            case 2 -> ProductEventType.PRODUCT_UPDATED;
+            case 3 -> ProductEventType.PRODUCT_STOCK_CHANGED;
+            default -> null;
+        };
+    }
+}
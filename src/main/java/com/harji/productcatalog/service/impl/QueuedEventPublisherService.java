@@ -0,0 +1,269 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.exception.EventPublishRejectedException;
+import com.harji.productcatalog.service.AsyncEventPublisherService;
+import com.harji.productcatalog.service.EventPublisherService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes events from bounded in-memory queues on a dedicated thread pool.
+ * <p>
+ * Each publisher thread owns one queue and events are routed by product id, so events for the same
+ * product are published in the order they were queued. A thread drains up to {@code max-batch} events
+ * at a time and hands them to the delegate as one batch. When a queue is full the configured
+ * {@link BackpressurePolicy} decides whether the caller waits, the oldest queued event is dropped, or
+ * the new event is rejected.
+ * <p>
+ * Every batch handed to the delegate is timed, and each event is counted as published or failed, tagged by
+ * event type and by the delegate's {@link EventPublisherService#getName() name}.
+ */
+@Service
+public class QueuedEventPublisherService implements AsyncEventPublisherService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QueuedEventPublisherService.class);
+    private static final long POLL_INTERVAL_MS = 100;
+
+    public enum BackpressurePolicy {
+        BLOCK,
+        DROP_OLDEST,
+        FAIL_FAST
+    }
+
+    private final EventPublisherService eventPublisherService;
+    private final BackpressurePolicy policy;
+    private final long blockTimeoutMs;
+    private final int maxBatch;
+    private final List<BlockingDeque<PendingEvent>> queues;
+    private final ExecutorService executor;
+    private final Counter droppedCounter;
+    private final Counter rejectedCounter;
+    private final Timer publishSuccessTimer;
+    private final Timer publishFailureTimer;
+    private final Map<ProductEventType, Counter> publishedCounters = new EnumMap<>(ProductEventType.class);
+    private final Map<ProductEventType, Counter> failedCounters = new EnumMap<>(ProductEventType.class);
+    private volatile boolean running = true;
+
+    public QueuedEventPublisherService(EventPublisherService eventPublisherService,
+                                       MeterRegistry meterRegistry,
+                                       @Qualifier("eventPublisherThreadFactory") ThreadFactory threadFactory,
+                                       @Value("${app.event.async.threads:2}") int threads,
+                                       @Value("${app.event.async.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${app.event.async.policy:block}") String policy,
+                                       @Value("${app.event.async.block-timeout-ms:5000}") long blockTimeoutMs,
+                                       @Value("${app.event.async.max-batch:100}") int maxBatch) {
+        this.eventPublisherService = eventPublisherService;
+        this.policy = BackpressurePolicy.valueOf(policy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.maxBatch = maxBatch;
+
+        int capacityPerQueue = Math.max(1, queueCapacity / threads);
+        this.queues = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            queues.add(new LinkedBlockingDeque<>(capacityPerQueue));
+        }
+
+        Gauge.builder("product.events.publish.queue.depth", this, QueuedEventPublisherService::getQueueDepth)
+                .description("Events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("product.events.publish.queue.capacity", () -> capacityPerQueue * threads)
+                .description("Maximum number of events that can wait to be published")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("product.events.publish.rejected")
+                .tag("reason", "dropped")
+                .description("Events not published because the queue was full")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("product.events.publish.rejected")
+                .tag("reason", "rejected")
+                .description("Events not published because the queue was full")
+                .register(meterRegistry);
+
+        String publisher = eventPublisherService.getName();
+        this.publishSuccessTimer = publishTimer(meterRegistry, publisher, "success");
+        this.publishFailureTimer = publishTimer(meterRegistry, publisher, "failure");
+        for (ProductEventType eventType : ProductEventType.values()) {
+            publishedCounters.put(eventType, publishCounter(meterRegistry, publisher, eventType, "success"));
+            failedCounters.put(eventType, publishCounter(meterRegistry, publisher, eventType, "failure"));
+        }
+
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+        for (BlockingDeque<PendingEvent> queue : queues) {
+            executor.execute(() -> drain(queue));
+        }
+        log.info("Publishing events asynchronously on {} threads, queue capacity {}, policy {}",
+                threads, capacityPerQueue * threads, this.policy);
+    }
+
+    @Override
+    public CompletableFuture<Void> publishProductEventAsync(ProductEventDTO event) {
+        PendingEvent pending = new PendingEvent(event, new CompletableFuture<>());
+        if (!running) {
+            pending.ack().completeExceptionally(new EventPublishRejectedException("Event publisher is shut down"));
+            return pending.ack();
+        }
+
+        BlockingDeque<PendingEvent> queue = queueFor(event);
+        switch (policy) {
+            case BLOCK -> enqueueBlocking(queue, pending);
+            case DROP_OLDEST -> enqueueDroppingOldest(queue, pending);
+            case FAIL_FAST -> {
+                if (!queue.offerLast(pending)) {
+                    reject(pending, "Event queue is full");
+                }
+            }
+        }
+        return pending.ack();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        int depth = 0;
+        for (BlockingDeque<PendingEvent> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+        for (BlockingDeque<PendingEvent> queue : queues) {
+            PendingEvent pending;
+            while ((pending = queue.pollFirst()) != null) {
+                pending.ack().completeExceptionally(new EventPublishRejectedException("Event publisher is shut down"));
+            }
+        }
+    }
+
+    private void enqueueBlocking(BlockingDeque<PendingEvent> queue, PendingEvent pending) {
+        try {
+            if (!queue.offerLast(pending, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                reject(pending, "Timed out waiting for space in the event queue");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(pending, "Interrupted while waiting for space in the event queue");
+        }
+    }
+
+    private void enqueueDroppingOldest(BlockingDeque<PendingEvent> queue, PendingEvent pending) {
+        while (!queue.offerLast(pending)) {
+            PendingEvent dropped = queue.pollFirst();
+            if (dropped != null) {
+                droppedCounter.increment();
+                dropped.ack().completeExceptionally(
+                        new EventPublishRejectedException("Dropped to make room for newer events"));
+            }
+        }
+    }
+
+    private void reject(PendingEvent pending, String reason) {
+        rejectedCounter.increment();
+        pending.ack().completeExceptionally(new EventPublishRejectedException(reason));
+    }
+
+    private BlockingDeque<PendingEvent> queueFor(ProductEventDTO event) {
+        Object key = event.getProduct() == null ? null : event.getProduct().getProductId();
+        return queues.get(Math.floorMod(key == null ? 0 : key.hashCode(), queues.size()));
+    }
+
+    private void drain(BlockingDeque<PendingEvent> queue) {
+        List<PendingEvent> batch = new ArrayList<>(maxBatch);
+        // Keep going after shutdown until the queue is empty, so accepted events are still published
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.pollFirst(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(List<PendingEvent> batch) {
+        List<ProductEventDTO> events = new ArrayList<>(batch.size());
+        for (PendingEvent pending : batch) {
+            events.add(pending.event());
+        }
+        long start = System.nanoTime();
+        try {
+            eventPublisherService.publishProductEvents(events);
+            publishSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(pending -> {
+                count(publishedCounters, pending.event());
+                pending.ack().complete(null);
+            });
+        } catch (RuntimeException e) {
+            publishFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Failed to publish batch of {} events: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> {
+                count(failedCounters, pending.event());
+                pending.ack().completeExceptionally(e);
+            });
+        }
+    }
+
+    private static void count(Map<ProductEventType, Counter> counters, ProductEventDTO event) {
+        Counter counter = event.getEventType() == null ? null : counters.get(event.getEventType());
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static Timer publishTimer(MeterRegistry meterRegistry, String publisher, String outcome) {
+        return Timer.builder("product.events.publish")
+                .tag("publisher", publisher)
+                .tag("outcome", outcome)
+                .description("Time for the publisher to accept one batch of events")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter publishCounter(MeterRegistry meterRegistry, String publisher, ProductEventType eventType,
+                                          String outcome) {
+        return Counter.builder("product.events.published")
+                .tag("publisher", publisher)
+                .tag("type", eventType.name())
+                .tag("outcome", outcome)
+                .description("Events handed to the publisher, by outcome")
+                .register(meterRegistry);
+    }
+
+    private record PendingEvent(ProductEventDTO event, CompletableFuture<Void> ack) {
+    }
+}
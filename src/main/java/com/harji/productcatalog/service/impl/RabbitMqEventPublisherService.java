@@ -0,0 +1,304 @@
+package com.harji.productcatalog.service.impl;
+
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.EventPublisherService;
+import com.harji.productcatalog.service.EventSerializer;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.BuiltinExchangeType;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RabbitMQ event publisher with publisher confirms.
+ * <p>
+ * Channels are kept in a small pool and put in confirm mode once. A batch is published without waiting
+ * between messages; each message is tracked by its publish sequence number and completed when the broker
+ * acks it (individually or as part of a {@code multiple} ack). The caller then waits once for the whole
+ * batch. If any message was nacked or not confirmed in time, the batch is published again from that message on,
+ * in the original order, so the last copy of every message still arrives in batch order.
+ * <p>
+ * Delivery is at-least-once: messages after the first unconfirmed one are published again even if the broker had
+ * already confirmed them, so consumers see duplicates, and may see a later event for a product before the retried
+ * copy of an earlier one. Consumers should ignore events whose product version they have already applied.
+ */
+@Service
+@Profile("rabbitmq")
+public class RabbitMqEventPublisherService implements EventPublisherService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RabbitMqEventPublisherService.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final EventSerializer eventSerializer;
+    private final String exchange;
+    private final int channelPoolSize;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final BlockingQueue<ConfirmingChannel> idleChannels;
+    private final AtomicInteger openChannels = new AtomicInteger();
+    private final Lock connectionLock = new ReentrantLock();
+    private volatile Connection connection;
+    private volatile boolean exchangeDeclared;
+
+    public RabbitMqEventPublisherService(ConnectionFactory connectionFactory,
+                                         EventSerializer eventSerializer,
+                                         @Value("${app.event.rabbitmq.exchange:${app.event.topic}}") String exchange,
+                                         @Value("${app.event.rabbitmq.channel-pool-size:4}") int channelPoolSize,
+                                         @Value("${app.event.rabbitmq.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                                         @Value("${app.event.rabbitmq.max-attempts:3}") int maxAttempts) {
+        this.connectionFactory = connectionFactory;
+        this.eventSerializer = eventSerializer;
+        this.exchange = exchange;
+        this.channelPoolSize = channelPoolSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.idleChannels = new ArrayBlockingQueue<>(channelPoolSize);
+    }
+
+    @Override
+    public String getName() {
+        return "rabbitmq";
+    }
+
+    @Override
+    public void publishProductEvents(List<ProductEventDTO> events) {
+        List<OutgoingMessage> pending = new ArrayList<>(events.size());
+        for (ProductEventDTO event : events) {
+            pending.add(toMessage(event));
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            List<CompletableFuture<Void>> confirms = send(pending);
+            awaitConfirms(confirms);
+
+            int firstUnconfirmed = 0;
+            while (firstUnconfirmed < pending.size() && isConfirmed(confirms.get(firstUnconfirmed))) {
+                firstUnconfirmed++;
+            }
+            if (firstUnconfirmed == pending.size()) {
+                log.debug("Published {} events to exchange {}", events.size(), exchange);
+                return;
+            }
+            // Everything after the first unconfirmed message goes again, so per-product order is kept
+            List<OutgoingMessage> unconfirmed = pending.subList(firstUnconfirmed, pending.size());
+            if (attempt == maxAttempts) {
+                throw new IllegalStateException(unconfirmed.size() + " of " + events.size()
+                        + " events were not confirmed by RabbitMQ in order after " + maxAttempts + " attempts");
+            }
+            log.warn("{} of {} events were not confirmed by RabbitMQ in order, retrying (attempt {} of {})",
+                    unconfirmed.size(), pending.size(), attempt + 1, maxAttempts);
+            pending = unconfirmed;
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        ConfirmingChannel channel;
+        while ((channel = idleChannels.poll()) != null) {
+            channel.close();
+        }
+        Connection current = connection;
+        if (current != null && current.isOpen()) {
+            current.close();
+        }
+    }
+
+    private OutgoingMessage toMessage(ProductEventDTO event) {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(eventSerializer.getContentType())
+                .deliveryMode(2)
+                .type(event.getEventType().name())
+                .build();
+        return new OutgoingMessage(event.getEventType().name(), properties, eventSerializer.serialize(event));
+    }
+
+    /**
+     * Publishes every message on one pooled channel and returns a confirm future per message, in order.
+     */
+    private List<CompletableFuture<Void>> send(List<OutgoingMessage> messages) {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(messages.size());
+        ConfirmingChannel channel;
+        try {
+            channel = borrowChannel();
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            log.warn("Could not obtain a RabbitMQ channel: {}", e.getMessage());
+            messages.forEach(message -> confirms.add(CompletableFuture.failedFuture(e)));
+            return confirms;
+        }
+
+        try {
+            for (OutgoingMessage message : messages) {
+                confirms.add(channel.publish(exchange, message));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to publish to RabbitMQ after {} of {} messages: {}",
+                    confirms.size(), messages.size(), e.getMessage());
+            while (confirms.size() < messages.size()) {
+                confirms.add(CompletableFuture.failedFuture(e));
+            }
+        } finally {
+            releaseChannel(channel);
+        }
+        return confirms;
+    }
+
+    private static boolean isConfirmed(CompletableFuture<Void> confirm) {
+        return confirm.isDone() && !confirm.isCompletedExceptionally();
+    }
+
+    private void awaitConfirms(List<CompletableFuture<Void>> confirms) {
+        try {
+            CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new))
+                    .get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Unconfirmed messages are picked out individually by the caller
+        }
+    }
+
+    private ConfirmingChannel borrowChannel() throws IOException, TimeoutException {
+        ConfirmingChannel channel = idleChannels.poll();
+        if (channel != null) {
+            return channel;
+        }
+        if (openChannels.incrementAndGet() <= channelPoolSize) {
+            try {
+                return new ConfirmingChannel(connection().createChannel());
+            } catch (IOException | RuntimeException e) {
+                openChannels.decrementAndGet();
+                throw e;
+            }
+        }
+        openChannels.decrementAndGet();
+        try {
+            channel = idleChannels.poll(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a RabbitMQ channel", e);
+        }
+        if (channel == null) {
+            throw new TimeoutException("No RabbitMQ channel became available within " + confirmTimeoutMs + " ms");
+        }
+        return channel;
+    }
+
+    private void releaseChannel(ConfirmingChannel channel) {
+        if (channel.isOpen()) {
+            idleChannels.offer(channel);
+        } else {
+            openChannels.decrementAndGet();
+        }
+    }
+
+    private Connection connection() throws IOException, TimeoutException {
+        Connection current = connection;
+        if (current != null && current.isOpen()) {
+            return current;
+        }
+        // A lock rather than synchronized, so virtual threads are not pinned while connecting
+        connectionLock.lock();
+        try {
+            if (connection == null || !connection.isOpen()) {
+                connection = connectionFactory.newConnection("product-catalog-publisher");
+                exchangeDeclared = false;
+            }
+            return connection;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private record OutgoingMessage(String routingKey, AMQP.BasicProperties properties, byte[] body) {
+    }
+
+    /**
+     * A channel in confirm mode with the futures of its unconfirmed messages, keyed by publish sequence number.
+     */
+    private final class ConfirmingChannel {
+
+        private final Channel channel;
+        private final ConcurrentNavigableMap<Long, CompletableFuture<Void>> unconfirmed = new ConcurrentSkipListMap<>();
+
+        ConfirmingChannel(Channel channel) throws IOException {
+            this.channel = channel;
+            channel.confirmSelect();
+            channel.addConfirmListener(
+                    (sequenceNumber, multiple) -> confirmed(sequenceNumber, multiple)
+                            .forEach(confirm -> confirm.complete(null)),
+                    (sequenceNumber, multiple) -> confirmed(sequenceNumber, multiple)
+                            .forEach(confirm -> confirm.completeExceptionally(
+                                    new IllegalStateException("RabbitMQ nacked message " + sequenceNumber))));
+            channel.addShutdownListener(cause -> {
+                for (Long sequenceNumber : unconfirmed.keySet()) {
+                    CompletableFuture<Void> confirm = unconfirmed.remove(sequenceNumber);
+                    if (confirm != null) {
+                        confirm.completeExceptionally(cause);
+                    }
+                }
+            });
+            if (!exchangeDeclared) {
+                channel.exchangeDeclare(exchange, BuiltinExchangeType.TOPIC, true);
+                exchangeDeclared = true;
+            }
+        }
+
+        CompletableFuture<Void> publish(String exchange, OutgoingMessage message) throws IOException {
+            long sequenceNumber = channel.getNextPublishSeqNo();
+            CompletableFuture<Void> confirm = new CompletableFuture<>();
+            unconfirmed.put(sequenceNumber, confirm);
+            try {
+                channel.basicPublish(exchange, message.routingKey(), message.properties(), message.body());
+            } catch (IOException | RuntimeException e) {
+                unconfirmed.remove(sequenceNumber);
+                throw e;
+            }
+            return confirm;
+        }
+
+        boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException | TimeoutException | RuntimeException e) {
+                log.debug("Failed to close RabbitMQ channel: {}", e.getMessage());
+            }
+        }
+
+        private List<CompletableFuture<Void>> confirmed(long sequenceNumber, boolean multiple) {
+            if (!multiple) {
+                CompletableFuture<Void> confirm = unconfirmed.remove(sequenceNumber);
+                return confirm == null ? List.of() : List.of(confirm);
+            }
+            Map<Long, CompletableFuture<Void>> confirmedUpTo = unconfirmed.headMap(sequenceNumber, true);
+            List<CompletableFuture<Void>> confirms = new ArrayList<>(confirmedUpTo.values());
+            confirmedUpTo.clear();
+            return confirms;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.harji.productcatalog.service.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock counter split across independently updated stripes, so concurrent reservations on one product
+ * rarely touch the same cache line.
+ * <p>
+ * Each stripe holds a share of the stock and is only ever decremented by compare-and-set when it holds
+ * enough, so no stripe (and therefore the total) can go negative. Stock is spread evenly over the stripes,
+ * and a reservation first tries the stripe owned by the calling thread. Only when that share is too small
+ * does it gather the stock of all stripes under the counter's monitor, take what it needs and spread the
+ * rest evenly again, so the stripes that ran dry are refilled for the reservations after it.
+ */
+class StripedStockCounter {
+
+    // Slots per stripe: stock, last change in epoch millis, then padding to a 128 byte stride
+    private static final int STRIDE = 16;
+    private static final int CHANGED_AT = 1;
+
+    private final int mask;
+    private final AtomicLongArray slots;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Guarded by this
+    private long gatherCount;
+
+    StripedStockCounter(int stripes, long initialStock, long lastUpdatedMillis) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicLongArray(size * STRIDE);
+        spread(initialStock);
+        slots.set(CHANGED_AT, lastUpdatedMillis);
+    }
+
+    boolean tryTake(long quantity) {
+        int home = homeStripe();
+        if (tryTakeFrom(home, quantity)) {
+            touch(home);
+            return true;
+        }
+        return takeAcrossStripes(home, quantity);
+    }
+
+    void add(long quantity) {
+        int home = homeStripe();
+        slots.getAndAdd(home * STRIDE, quantity);
+        touch(home);
+    }
+
+    /**
+     * Replaces the stock with an absolute value, e.g. after a full product update.
+     */
+    synchronized void reset(long stock) {
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            slots.set(stripe * STRIDE, 0);
+        }
+        spread(stock);
+        touch(0);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += slots.get(stripe * STRIDE);
+        }
+        return sum;
+    }
+
+    long lastChangedMillis() {
+        long lastChanged = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            lastChanged = Math.max(lastChanged, slots.get(stripe * STRIDE + CHANGED_AT));
+        }
+        return lastChanged;
+    }
+
+    /**
+     * Clears the dirty flag, returning whether the counter changed since the previous call.
+     */
+    boolean markClean() {
+        return dirty.getAndSet(false);
+    }
+
+    void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * How many reservations had to gather stock across stripes instead of taking it from their own.
+     */
+    synchronized long gatherCount() {
+        return gatherCount;
+    }
+
+    private synchronized boolean takeAcrossStripes(int home, long quantity) {
+        gatherCount++;
+        long total = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            total += takeUpTo(stripe, Long.MAX_VALUE);
+        }
+        if (total < quantity) {
+            spread(total);
+            return false;
+        }
+        spread(total - quantity);
+        touch(home);
+        return true;
+    }
+
+    /**
+     * Adds the stock to the stripes in equal shares. Added rather than set, so concurrent releases are kept.
+     */
+    private void spread(long stock) {
+        if (stock < 0) {
+            slots.getAndAdd(0, stock);
+            return;
+        }
+        int stripes = mask + 1;
+        long share = stock / stripes;
+        long remainder = stock % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            long amount = share + (stripe < remainder ? 1 : 0);
+            if (amount != 0) {
+                slots.getAndAdd(stripe * STRIDE, amount);
+            }
+        }
+    }
+
+    private boolean tryTakeFrom(int stripe, long quantity) {
+        int slot = stripe * STRIDE;
+        long current;
+        do {
+            current = slots.get(slot);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!slots.compareAndSet(slot, current, current - quantity));
+        return true;
+    }
+
+    private long takeUpTo(int stripe, long quantity) {
+        int slot = stripe * STRIDE;
+        long current;
+        long share;
+        do {
+            current = slots.get(slot);
+            share = Math.min(current, quantity);
+            if (share <= 0) {
+                return 0;
+            }
+        } while (!slots.compareAndSet(slot, current, current - share));
+        return share;
+    }
+
+    private void touch(int stripe) {
+        slots.lazySet(stripe * STRIDE + CHANGED_AT, System.currentTimeMillis());
+        // Read first so that steady-state updates do not all write the shared flag
+        if (!dirty.get()) {
+            dirty.set(true);
+        }
+    }
+
+    private int homeStripe() {
+        return (int) Thread.currentThread().getId() & mask;
+    }
+}
@@ -0,0 +1,17 @@
+-- Change feed position of each product: the id of the transaction that last wrote it.
+-- Run after Hibernate has created the schema (spring.jpa.defer-datasource-initialization); every statement is idempotent.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_xid xid8;
+
+CREATE OR REPLACE FUNCTION products_set_change_xid() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END';
+
+-- A trigger rather than application code so native statements, batches and hot stock flushes are all covered
+CREATE OR REPLACE TRIGGER products_change_xid BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_set_change_xid();
+
+UPDATE products SET change_xid = pg_current_xact_id() WHERE change_xid IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_products_change_xid_id ON products (change_xid, product_id);
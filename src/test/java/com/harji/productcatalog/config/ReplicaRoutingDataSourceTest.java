@@ -0,0 +1,226 @@
+package com.harji.productcatalog.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 1000;
+    private static final String PRIMARY_LSN = "0/3000060";
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaStalenessGuard stalenessGuard;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        stalenessGuard = new ReplicaStalenessGuard(60000);
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), stalenessGuard,
+                new SimpleMeterRegistry(), MAX_LAG_MS, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+        routingDataSource.close();
+    }
+
+    @Test
+    void getConnection_WhenReadOnlyAndReplicaHealthy_ShouldUseReplica() throws Exception {
+        // Arrange
+        primaryAtLsn(PRIMARY_LSN);
+        replicaReportsLag(0);
+        routingDataSource.checkReplicas();
+        clearInvocations(primary);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act
+        Connection connection = routingDataSource.getConnection();
+        
+        // Assert
+        assertSame(replicaConnection, connection);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_WhenNotReadOnly_ShouldUsePrimary() throws Exception {
+        // Arrange
+        replicaReportsLag(0);
+        routingDataSource.checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        
+        // Act
+        Connection connection = routingDataSource.getConnection();
+        
+        // Assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void getConnection_WhenReplicaLagsTooFarBehind_ShouldUsePrimary() throws Exception {
+        // Arrange
+        replicaReportsLag(MAX_LAG_MS + 1);
+        routingDataSource.checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act
+        Connection connection = routingDataSource.getConnection();
+        
+        // Assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void getConnection_RightAfterClientWrote_ShouldUsePrimary() throws Exception {
+        // Arrange
+        replicaReportsLag(0);
+        routingDataSource.checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        MockHttpServletResponse writeResponse = inRequest();
+        stalenessGuard.recordWrite();
+        inRequest(writeResponse.getCookie(ReplicaStalenessGuard.COOKIE_NAME));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act
+        Connection connection = routingDataSource.getConnection();
+        
+        // Assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void getConnection_RightAfterAnotherClientWrote_ShouldUseReplica() throws Exception {
+        // Arrange
+        replicaReportsLag(0);
+        routingDataSource.checkReplicas();
+        inRequest();
+        stalenessGuard.recordWrite();
+        inRequest();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(replicaConnection, connection);
+    }
+
+    @Test
+    void getConnection_WhenReplicaRefusesConnection_ShouldFallBackToPrimaryAndTakeReplicaOutOfRotation()
+            throws Exception {
+        // Arrange
+        replicaReportsLag(0);
+        routingDataSource.checkReplicas();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+        
+        // Assert
+        assertSame(primaryConnection, first);
+        assertSame(primaryConnection, second);
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void checkReplicas_ShouldMeasureReplicaAgainstPrimaryLsn() throws Exception {
+        // Arrange
+        primaryAtLsn(PRIMARY_LSN);
+        PreparedStatement lagStatement = replicaReportsLag(0);
+
+        // Act
+        routingDataSource.checkReplicas();
+
+        // Assert
+        verify(lagStatement).setString(1, PRIMARY_LSN);
+    }
+
+    @Test
+    void checkReplicas_WhenPrimaryLsnUnavailable_ShouldStillMeasureReplica() throws Exception {
+        // Arrange
+        when(primary.getConnection()).thenThrow(new SQLException("Connection refused"));
+        PreparedStatement lagStatement = replicaReportsLag(0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        routingDataSource.checkReplicas();
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        verify(lagStatement).setString(1, null);
+        assertSame(replicaConnection, connection);
+    }
+
+    private static MockHttpServletResponse inRequest(Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private void primaryAtLsn(String lsn) throws SQLException {
+        Connection lsnConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(lsnConnection);
+        when(lsnConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.PRIMARY_LSN_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(lsn);
+    }
+
+    private PreparedStatement replicaReportsLag(long lagMs) throws SQLException {
+        Connection healthCheckConnection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(healthCheckConnection, replicaConnection);
+        when(healthCheckConnection.prepareStatement(ReplicaRoutingDataSource.REPLICATION_LAG_QUERY))
+                .thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMs);
+        return statement;
+    }
+}
@@ -1,26 +1,52 @@
 package com.harji.productcatalog.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.dto.ProductChangesDTO;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductPageDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.dto.StockLevelDTO;
+import com.harji.productcatalog.exception.InsufficientStockException;
 import com.harji.productcatalog.exception.ProductNotFoundException;
+import com.harji.productcatalog.exception.SubscriberLimitExceededException;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+import com.harji.productcatalog.service.ProductChangeFeedService;
+import com.harji.productcatalog.service.ProductEventStreamService;
+import com.harji.productcatalog.service.ProductSearchService;
 import com.harji.productcatalog.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +54,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(ProductController.class)
 class ProductControllerTest {
 
+    private static final String CATALOG_VERSION = "1000:00000000-0000-0000-0000-000000000001";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -37,6 +65,15 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @MockBean
+    private ProductChangeFeedService productChangeFeedService;
+
+    @MockBean
+    private ProductEventStreamService productEventStreamService;
+
     private UUID productId;
     private ProductDTO productDTO;
 
@@ -117,6 +154,46 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.availableStock", is(20)));
     }
 
+    @Test
+    void patchProduct_ShouldPassOnlySuppliedFieldsToService() throws Exception {
+        // Arrange
+        when(productService.patchProduct(eq(productId), any(ProductDTO.class), eq(Set.of("availableStock"))))
+                .thenReturn(productDTO);
+        
+        // Act & Assert
+        mockMvc.perform(patch("/products/{id}", productId)
+                .contentType(ProductController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"availableStock\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Test Product")));
+        
+        verify(productService, times(1)).patchProduct(eq(productId),
+                eq(ProductDTO.builder().availableStock(10).build()), eq(Set.of("availableStock")));
+    }
+
+    @Test
+    void patchProduct_WithInvalidSuppliedField_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/products/{id}", productId)
+                .contentType(ProductController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"name\": null, \"availableStock\": -1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", hasSize(2)));
+        
+        verify(productService, never()).patchProduct(any(), any(), any());
+    }
+
+    @Test
+    void patchProduct_WithReadOnlyField_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/products/{id}", productId)
+                .contentType(ProductController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"lastUpdated\": \"2024-01-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+        
+        verify(productService, never()).patchProduct(any(), any(), any());
+    }
+
     @Test
     void getProductById_ShouldReturnProduct() throws Exception {
         // Arrange
@@ -133,6 +210,47 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.availableStock", is(10)));
     }
 
+    @Test
+    void getProductById_ShouldReturnETagAndLastModified() throws Exception {
+        // Arrange
+        when(productService.getProductById(productId)).thenReturn(productDTO);
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"" + productId)))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    void getProductById_WhenETagMatches_ShouldReturnNotModifiedWithoutLoadingProduct() throws Exception {
+        // Arrange
+        when(productService.getProductById(productId)).thenReturn(productDTO);
+        when(productService.getProductLastUpdated(productId)).thenReturn(Optional.of(productDTO.getLastUpdated()));
+        String eTag = mockMvc.perform(get("/products/{id}", productId))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/{id}", productId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        
+        verify(productService, times(1)).getProductById(productId);
+    }
+
+    @Test
+    void getProductById_WhenETagIsStale_ShouldReturnProduct() throws Exception {
+        // Arrange
+        when(productService.getProductById(productId)).thenReturn(productDTO);
+        when(productService.getProductLastUpdated(productId)).thenReturn(Optional.of(productDTO.getLastUpdated()));
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/{id}", productId).header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId", is(productId.toString())));
+    }
+
     @Test
     void getProductById_WhenProductNotFound_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -143,14 +261,56 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void reserveStock_ShouldReturnRemainingStock() throws Exception {
+        // Arrange
+        when(productService.reserveStock(productId, 2)).thenReturn(StockLevelDTO.builder()
+                .productId(productId)
+                .availableStock(8)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/products/{id}/stock/reserve", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableStock", is(8)));
+    }
+
+    @Test
+    void reserveStock_WhenStockIsInsufficient_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(productService.reserveStock(productId, 50))
+                .thenThrow(new InsufficientStockException("Insufficient stock"));
+
+        // Act & Assert
+        mockMvc.perform(post("/products/{id}/stock/reserve", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\":50}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void reserveStock_WithNonPositiveQuantity_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/products/{id}/stock/reserve", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).reserveStock(any(), any(Integer.class));
+    }
+
     @Test
     void getAllProducts_ShouldReturnListOfProducts() throws Exception {
         // Arrange
-        when(productService.getAllProducts()).thenReturn(List.of(productDTO));
+        when(productService.getProducts(any(ProductSearchCriteria.class), isNull(), eq(100)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), null));
         
         // Act & Assert
         mockMvc.perform(get("/products"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].productId", is(productId.toString())))
                 .andExpect(jsonPath("$[0].name", is("Test Product")))
@@ -159,4 +319,223 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].price", is(99.99)))
                 .andExpect(jsonPath("$[0].availableStock", is(10)));
     }
+
+    @Test
+    void getAllProducts_WhenCatalogUnchanged_ShouldReturnNotModifiedWithoutQueryingPage() throws Exception {
+        // Arrange
+        when(productService.getCatalogVersion()).thenReturn(CATALOG_VERSION);
+        when(productService.getProducts(any(ProductSearchCriteria.class), isNull(), eq(100)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), null));
+        String eTag = mockMvc.perform(get("/products").param("category", "Test Category"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Act & Assert
+        mockMvc.perform(get("/products").param("category", "Test Category").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/products").param("category", "Other").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+        
+        verify(productService, times(2)).getProducts(any(ProductSearchCriteria.class), isNull(), eq(100));
+    }
+
+    @Test
+    void getAllProducts_WhenCatalogVersionMovesOn_ShouldReturnPage() throws Exception {
+        // Arrange
+        when(productService.getCatalogVersion()).thenReturn(CATALOG_VERSION, "1001:" + productId);
+        when(productService.getProducts(any(ProductSearchCriteria.class), isNull(), eq(100)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), null));
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    void getAllProducts_WithIfModifiedSinceOnly_ShouldReturnPage() throws Exception {
+        // Arrange
+        when(productService.getCatalogVersion()).thenReturn(CATALOG_VERSION);
+        when(productService.getProducts(any(ProductSearchCriteria.class), isNull(), eq(100)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/products").header("If-Modified-Since", "Wed, 21 Oct 2099 07:28:00 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllProducts_WithCursorAndLimit_ShouldReturnNextCursorHeader() throws Exception {
+        // Arrange
+        when(productService.getProducts(any(ProductSearchCriteria.class), eq("abc"), eq(1)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), "def"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/products").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getAllProducts_WithLimitAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+        
+        verify(productService, never()).getProducts(any(), any(), any(Integer.class));
+    }
+
+    @Test
+    void getAllProducts_WithFiltersAndSort_ShouldPassCriteriaToService() throws Exception {
+        // Arrange
+        ProductSearchCriteria expected = ProductSearchCriteria.builder()
+                .category("Test Category")
+                .minPrice(new BigDecimal("10"))
+                .maxPrice(new BigDecimal("100"))
+                .minStock(1)
+                .updatedSince(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .sortKey(ProductSearchCriteria.SortKey.PRICE)
+                .direction(Sort.Direction.DESC)
+                .build();
+        when(productService.getProducts(eq(expected), isNull(), eq(100)))
+                .thenReturn(new ProductPageDTO(List.of(productDTO), null));
+        
+        // Act & Assert
+        mockMvc.perform(get("/products")
+                        .param("category", "Test Category")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "100")
+                        .param("minStock", "1")
+                        .param("updatedSince", "2024-01-01T00:00:00")
+                        .param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getAllProducts_WithUnknownSortKey_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProducts_WithInvertedPriceRange_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products").param("minPrice", "100").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductChanges_ShouldReturnChangedProductsAndNextCursor() throws Exception {
+        // Arrange
+        when(productChangeFeedService.awaitChanges("abc", 50, Duration.ofSeconds(5)))
+                .thenReturn(CompletableFuture.completedFuture(ProductChangesDTO.builder()
+                        .products(List.of(productDTO))
+                        .nextCursor("def")
+                        .build()));
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/products/changes")
+                        .param("since", "abc")
+                        .param("limit", "50")
+                        .param("wait", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("def")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void getProductChanges_WithWaitAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products/changes").param("wait", "31"))
+                .andExpect(status().isBadRequest());
+        
+        verify(productChangeFeedService, never()).awaitChanges(any(), any(Integer.class), any());
+    }
+
+    @Test
+    void streamProductEvents_ShouldOpenEventStreamForCategory() throws Exception {
+        // Arrange
+        when(productEventStreamService.subscribe("Electronics")).thenReturn(new SseEmitter());
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/events/stream")
+                        .param("category", "Electronics")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        
+        verify(productEventStreamService, times(1)).subscribe("Electronics");
+    }
+
+    @Test
+    void streamProductEvents_WhenSubscriberLimitReached_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(productEventStreamService.subscribe(null))
+                .thenThrow(new SubscriberLimitExceededException("Subscriber limit reached"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/events/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void searchProducts_ShouldReturnRankedHits() throws Exception {
+        // Arrange
+        when(productSearchService.search("test prod", 20))
+                .thenReturn(List.of(new ProductSearchHitDTO(productId, "Test Product", "Test Category", 4.2f)));
+        
+        // Act & Assert
+        mockMvc.perform(get("/products/search").param("q", "test prod"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].productId", is(productId.toString())))
+                .andExpect(jsonPath("$[0].name", is("Test Product")));
+    }
+
+    @Test
+    void searchProducts_WithBlankQuery_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllProducts_ShouldWriteNewlineDelimitedJson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(productDTO);
+            consumer.accept(productDTO);
+            return null;
+        }).when(productService).streamAllProducts(any(Consumer.class));
+        
+        // Act
+        String body = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertEquals(productId, objectMapper.readValue(line, ProductDTO.class).getProductId());
+        }
+    }
 }
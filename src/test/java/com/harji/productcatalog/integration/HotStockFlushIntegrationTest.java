@@ -0,0 +1,73 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import com.harji.productcatalog.service.impl.HotStockServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flushes hot stock against the database, where the stored update time backs ETags and the updated-since filter.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.outbox.relay.enabled=false")
+public class HotStockFlushIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductEventOutboxService productEventOutboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void flush_AfterLaterUpdate_ShouldNotMoveLastUpdatedBackwards() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder()
+                .name("Hot Product")
+                .category("Test")
+                .price(new BigDecimal("10.00"))
+                .availableStock(10)
+                .build());
+        HotStockServiceImpl hotStockService = new HotStockServiceImpl(productRepository, productEventOutboxService,
+                transactionTemplate, Set.of(product.getProductId()), 4);
+        hotStockService.reserve(product.getProductId(), 1);
+        Thread.sleep(20);
+        product.setName("Renamed After Reservation");
+        LocalDateTime updated = productRepository.save(product).getLastUpdated();
+
+        // Act
+        hotStockService.flush();
+
+        // Assert
+        Product flushed = productRepository.findById(product.getProductId()).orElseThrow();
+        assertEquals(9, flushed.getAvailableStock());
+        assertFalse(flushed.getLastUpdated().isBefore(updated.withNano(updated.getNano() / 1000 * 1000)),
+                "last_updated moved back from " + updated + " to " + flushed.getLastUpdated());
+    }
+}
@@ -0,0 +1,80 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.OutboxEvent;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the relay's claim queries against the database; the relay itself is disabled so it does not race the test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.outbox.relay.enabled=false")
+public class OutboxClaimIntegrationTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void claimNextBatch_ShouldSkipLeasedEventsUntilReleased() {
+        // Arrange
+        OutboxEvent first = save();
+        OutboxEvent second = save();
+        OutboxEvent third = save();
+
+        // Act
+        List<OutboxEvent> claimed = outboxEventRepository.claimNextBatch(2, 60_000);
+        List<OutboxEvent> claimedAgain = outboxEventRepository.claimNextBatch(2, 60_000);
+        outboxEventRepository.releaseClaims(List.of(first.getId()));
+        List<OutboxEvent> reclaimed = outboxEventRepository.claimNextBatch(2, 60_000);
+
+        // Assert
+        assertEquals(List.of(first.getId(), second.getId()), ids(claimed));
+        assertTrue(claimed.stream().allMatch(event -> event.getClaimedUntil() != null));
+        assertEquals(List.of(third.getId()), ids(claimedAgain));
+        assertEquals(List.of(first.getId()), ids(reclaimed));
+    }
+
+    @Test
+    void claimNextBatch_WhenLeaseExpired_ShouldClaimEventAgain() throws Exception {
+        // Arrange
+        OutboxEvent event = save();
+        outboxEventRepository.claimNextBatch(1, 1);
+        Thread.sleep(20);
+
+        // Act
+        List<OutboxEvent> claimed = outboxEventRepository.claimNextBatch(1, 60_000);
+
+        // Assert
+        assertEquals(List.of(event.getId()), ids(claimed));
+    }
+
+    private OutboxEvent save() {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(UUID.randomUUID())
+                .payload("{}")
+                .build());
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).sorted(Comparator.naturalOrder()).toList();
+    }
+}
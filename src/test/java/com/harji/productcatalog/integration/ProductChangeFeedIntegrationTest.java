@@ -0,0 +1,135 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductChangesDTO;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.ProductChangeFeedService;
+import com.harji.productcatalog.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the change feed, and the catalog version derived from it, against the database, where the visibility of a
+ * change depends on the transactions still running.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.outbox.relay.enabled=false")
+public class ProductChangeFeedIntegrationTest {
+
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void getChanges_WhileWriterIsLeftIdle_ShouldOnlyBeDelayedUntilWriterTimesOut() throws Exception {
+        // Arrange
+        Product stalled = save("Stalled Product");
+        Product committed = save("Committed Product");
+        String cursor = changeFeedService.getChanges(null, 100).getNextCursor();
+
+        Connection writer = dataSource.getConnection();
+        try {
+            try (Statement statement = writer.createStatement()) {
+                statement.execute("SET idle_in_transaction_session_timeout = '1s'");
+            }
+            writer.setAutoCommit(false);
+            try (PreparedStatement update = writer.prepareStatement(
+                    "UPDATE products SET name = 'Never Committed' WHERE product_id = ?")) {
+                update.setObject(1, stalled.getProductId());
+                update.executeUpdate();
+            }
+            committed.setName("Changed Behind Stalled Writer");
+            productRepository.save(committed);
+
+            // Act
+            ProductChangesDTO whileStalled = changeFeedService.getChanges(cursor, 100);
+            long start = System.nanoTime();
+            ProductChangesDTO afterTimeout = awaitChanges(cursor, 10_000);
+            long delayMs = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertTrue(whileStalled.getProducts().isEmpty());
+            assertEquals(List.of("Changed Behind Stalled Writer"),
+                    afterTimeout.getProducts().stream().map(ProductDTO::getName).toList());
+            assertTrue(delayMs < 5_000, "feed was held back for " + delayMs + " ms");
+            assertThrows(SQLException.class, writer::commit);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void getCatalogVersion_WhenWriteWithOlderTimestampCommitsLater_ShouldMoveOn() throws Exception {
+        // Arrange
+        Product first = save("First Product");
+        Product second = save("Second Product");
+        String before = productService.getCatalogVersion();
+
+        // Act
+        try (Connection writer = dataSource.getConnection();
+             PreparedStatement update = writer.prepareStatement(
+                     "UPDATE products SET name = 'Late Commit', last_updated = ? WHERE product_id = ?")) {
+            update.setObject(1, first.getLastUpdated().minusHours(1));
+            update.setObject(2, second.getProductId());
+            update.executeUpdate();
+        }
+        String after = productService.getCatalogVersion();
+
+        // Assert
+        assertNotNull(before);
+        assertNotEquals(before, after);
+    }
+
+    private ProductChangesDTO awaitChanges(String cursor, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        ProductChangesDTO page = changeFeedService.getChanges(cursor, 100);
+        while (page.getProducts().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            page = changeFeedService.getChanges(cursor, 100);
+        }
+        return page;
+    }
+
+    private Product save(String name) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .category("Test")
+                .price(new BigDecimal("10.00"))
+                .availableStock(1)
+                .build());
+    }
+}
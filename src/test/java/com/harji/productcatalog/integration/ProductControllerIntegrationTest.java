@@ -1,30 +1,51 @@
 package com.harji.productcatalog.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.config.CacheConfig;
 import com.harji.productcatalog.domain.Product;
 import com.harji.productcatalog.dto.ProductDTO;
 import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.repository.VersionedProduct;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+// Closed afterwards so its outbox relay stops draining the shared database under later tests
+@DirtiesContext
 public class ProductControllerIntegrationTest {
 
     @Autowired
@@ -36,6 +57,9 @@ public class ProductControllerIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private Product testProduct;
 
     @BeforeEach
@@ -54,6 +78,7 @@ public class ProductControllerIntegrationTest {
     @AfterEach
     void tearDown() {
         productRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
     }
 
     @Test
@@ -103,6 +128,186 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.availableStock", is(50)));
     }
 
+    @Test
+    void updateProduct_WhenNothingChanged_ShouldNotWriteProduct() throws Exception {
+        // Arrange
+        Product before = productRepository.findById(testProduct.getProductId()).orElseThrow();
+        ProductDTO sameDTO = ProductDTO.builder()
+                .name(testProduct.getName())
+                .description(testProduct.getDescription())
+                .category(testProduct.getCategory())
+                .price(new BigDecimal("99.990"))
+                .availableStock(testProduct.getAvailableStock())
+                .build();
+
+        // Act
+        mockMvc.perform(put("/products/{id}", testProduct.getProductId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sameDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(testProduct.getName())));
+
+        // Assert
+        Product stored = productRepository.findById(testProduct.getProductId()).orElseThrow();
+        assertEquals(before.getVersion(), stored.getVersion());
+        assertEquals(before.getLastUpdated(), stored.getLastUpdated());
+    }
+
+    @Test
+    void patchProduct_ShouldUpdateOnlySuppliedFields() throws Exception {
+        // Arrange
+        Product before = productRepository.findById(testProduct.getProductId()).orElseThrow();
+
+        // Act & Assert
+        mockMvc.perform(patch("/products/{id}", testProduct.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"availableStock\": 3, \"description\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Integration Test Product")))
+                .andExpect(jsonPath("$.price", is(99.99)))
+                .andExpect(jsonPath("$.availableStock", is(3)))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        Product stored = productRepository.findById(testProduct.getProductId()).orElseThrow();
+        assertEquals(3, stored.getAvailableStock());
+        assertNull(stored.getDescription());
+        assertEquals("Test", stored.getCategory());
+        assertEquals(before.getVersion() + 1, stored.getVersion());
+    }
+
+    @Test
+    void patchProduct_WhenNothingChanged_ShouldNotWriteProduct() throws Exception {
+        // Arrange
+        Product before = productRepository.findById(testProduct.getProductId()).orElseThrow();
+
+        // Act
+        mockMvc.perform(patch("/products/{id}", testProduct.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"price\": 99.990, \"availableStock\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableStock", is(10)));
+
+        // Assert
+        Product stored = productRepository.findById(testProduct.getProductId()).orElseThrow();
+        assertEquals(before.getVersion(), stored.getVersion());
+        assertEquals(before.getLastUpdated(), stored.getLastUpdated());
+    }
+
+    @Test
+    void patchProduct_ShouldRefreshCachedProduct() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk());
+
+        // Act
+        mockMvc.perform(patch("/products/{id}", testProduct.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"name\": \"Patched Product\"}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Patched Product")));
+    }
+
+    @Test
+    void patchProduct_WhenProductNotFound_ShouldReturnNotFound() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/products/{id}", UUID.randomUUID())
+                .contentType("application/merge-patch+json")
+                .content("{\"availableStock\": 3}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getProductChanges_ShouldReturnOnlyProductsChangedAfterCursor() throws Exception {
+        // Arrange
+        Product other = productRepository.save(Product.builder()
+                .name("Second Product").category("Test").price(new BigDecimal("5.00")).availableStock(1).build());
+        MvcResult initial = mockMvc.perform(get("/products/changes").param("limit", "1"))
+                .andReturn();
+        String afterFirst = JsonPath.read(mockMvc.perform(asyncDispatch(initial))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        MvcResult rest = mockMvc.perform(get("/products/changes").param("since", afterFirst)).andReturn();
+        String cursor = JsonPath.read(mockMvc.perform(asyncDispatch(rest))
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(patch("/products/{id}", other.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"availableStock\": 7}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        MvcResult changes = mockMvc.perform(get("/products/changes").param("since", cursor)).andReturn();
+        mockMvc.perform(asyncDispatch(changes))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].productId", is(other.getProductId().toString())))
+                .andExpect(jsonPath("$.products[0].availableStock", is(7)));
+    }
+
+    @Test
+    void getProductChanges_WithWait_ShouldHoldRequestUntilProductChanges() throws Exception {
+        // Arrange
+        MvcResult initial = mockMvc.perform(get("/products/changes")).andReturn();
+        String cursor = JsonPath.read(mockMvc.perform(asyncDispatch(initial))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        MvcResult waiting = mockMvc.perform(get("/products/changes").param("since", cursor).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        Thread.sleep(300);
+        mockMvc.perform(patch("/products/{id}", testProduct.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"name\": \"Changed While Waiting\"}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].name", is("Changed While Waiting")));
+    }
+
+    @Test
+    void streamProductEvents_ShouldDeliverPublishedEventsToMatchingCategoryOnly() throws Exception {
+        // Arrange
+        MvcResult testCategory = mockMvc.perform(get("/products/events/stream")
+                        .param("category", "Test")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult otherCategory = mockMvc.perform(get("/products/events/stream")
+                        .param("category", "Other")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        mockMvc.perform(patch("/products/{id}", testProduct.getProductId())
+                .contentType("application/merge-patch+json")
+                .content("{\"price\": 79.99}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        String expected = "\"productId\":\"" + testProduct.getProductId() + "\"";
+        String stream = "";
+        for (int attempt = 0; attempt < 100 && !stream.contains(expected); attempt++) {
+            Thread.sleep(50);
+            stream = testCategory.getResponse().getContentAsString();
+        }
+        assertTrue(stream.contains("event:PRODUCT_UPDATED\ndata:{"), stream);
+        assertTrue(stream.contains("\"changedFields\":[\"price\"]"), stream);
+        assertFalse(otherCategory.getResponse().getContentAsString().contains(expected));
+    }
+
     @Test
     void getProductById_ShouldReturnProduct() throws Exception {
         // Act & Assert
@@ -136,4 +341,322 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].price", is(99.99)))
                 .andExpect(jsonPath("$[0].availableStock", is(10)));
     }
+
+    @Test
+    void getAllProducts_WithLimit_ShouldPageThroughCatalogUsingCursor() throws Exception {
+        // Arrange
+        productRepository.save(Product.builder()
+                .name("Second Product")
+                .category("Test")
+                .price(new BigDecimal("10.00"))
+                .availableStock(1)
+                .build());
+
+        // Act & Assert
+        MvcResult firstPage = mockMvc.perform(get("/products").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Integration Test Product")))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/products")
+                        .param("limit", "1")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Second Product")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void streamAllProducts_ShouldReturnNewlineDelimitedJson() throws Exception {
+        // Act
+        String body = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Assert
+        ProductDTO streamed = objectMapper.readValue(body.trim(), ProductDTO.class);
+        assertEquals(testProduct.getProductId(), streamed.getProductId());
+    }
+
+    @Test
+    void getProductById_ShouldServeRepeatedReadsFromCache() throws Exception {
+        // Act
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk());
+
+        // Remove the row behind the cache's back; a cached read must not notice
+        productRepository.deleteById(testProduct.getProductId());
+
+        // Assert
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Integration Test Product")));
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[*].values[*]", hasItem("hit")));
+    }
+
+    @Test
+    void updateProduct_ShouldRefreshCachedProduct() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk());
+        ProductDTO updateDTO = ProductDTO.builder()
+                .name("Renamed Product")
+                .category("Test")
+                .price(new BigDecimal("99.99"))
+                .availableStock(10)
+                .build();
+
+        // Act
+        mockMvc.perform(put("/products/{id}", testProduct.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk());
+
+        // Assert
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(testProduct.getProductId());
+        assertNotNull(cached);
+        assertEquals("Renamed Product", ((VersionedProduct) cached.get()).product().getName());
+    }
+
+    @Test
+    void createProducts_ShouldCreateValidItemsAndReportInvalidOnes() throws Exception {
+        // Arrange
+        ProductDTO valid = ProductDTO.builder()
+                .name("Batch Product")
+                .category("Batch")
+                .price(new BigDecimal("5.00"))
+                .availableStock(3)
+                .build();
+        ProductDTO invalid = ProductDTO.builder()
+                .name("")
+                .category("Batch")
+                .price(new BigDecimal("-1.00"))
+                .availableStock(3)
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/products:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid, valid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[1].status", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].errors", hasSize(2)))
+                .andExpect(jsonPath("$.results[2].status", is("CREATED")));
+
+        assertEquals(3, productRepository.count());
+    }
+
+    @Test
+    void updateProducts_ShouldUpdateExistingProducts() throws Exception {
+        // Arrange
+        ProductDTO update = ProductDTO.builder()
+                .productId(testProduct.getProductId())
+                .name("Batch Updated Product")
+                .category("Test")
+                .price(new BigDecimal("1.00"))
+                .availableStock(0)
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(put("/products:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(update))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("UPDATED")));
+
+        assertEquals("Batch Updated Product",
+                productRepository.findById(testProduct.getProductId()).orElseThrow().getName());
+    }
+
+    @Test
+    void createProducts_WithEmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/products:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProducts_WithFiltersAndSort_ShouldReturnMatchingProductsInOrder() throws Exception {
+        // Arrange
+        for (String price : List.of("5.00", "50.00", "500.00")) {
+            productRepository.save(Product.builder()
+                    .name("Filtered " + price)
+                    .category("Filtered")
+                    .price(new BigDecimal(price))
+                    .availableStock(price.equals("50.00") ? 0 : 5)
+                    .build());
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/products")
+                        .param("category", "Filtered")
+                        .param("minPrice", "1")
+                        .param("maxPrice", "1000")
+                        .param("sort", "price,desc")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Filtered 500.00")))
+                .andExpect(jsonPath("$[1].name", is("Filtered 50.00")))
+                .andExpect(header().exists("X-Next-Cursor"));
+
+        mockMvc.perform(get("/products")
+                        .param("category", "Filtered")
+                        .param("minStock", "1")
+                        .param("sort", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Filtered 5.00")))
+                .andExpect(jsonPath("$[1].name", is("Filtered 500.00")));
+    }
+
+    @Test
+    void getAllProducts_WithSortedCursor_ShouldContinueInSameOrder() throws Exception {
+        // Arrange
+        productRepository.save(Product.builder()
+                .name("Cheaper Product")
+                .category("Test")
+                .price(new BigDecimal("1.00"))
+                .availableStock(1)
+                .build());
+
+        // Act & Assert
+        MvcResult firstPage = mockMvc.perform(get("/products").param("sort", "price").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Cheaper Product")))
+                .andReturn();
+
+        mockMvc.perform(get("/products")
+                        .param("sort", "price")
+                        .param("limit", "1")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Integration Test Product")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void searchProducts_ShouldFindProductCreatedThroughApi() throws Exception {
+        // Arrange
+        ProductDTO inputDTO = ProductDTO.builder()
+                .name("Quasar Espresso Machine")
+                .description("Dual boiler espresso maker")
+                .category("Kitchen")
+                .price(new BigDecimal("899.00"))
+                .availableStock(4)
+                .build();
+        mockMvc.perform(post("/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputDTO)))
+                .andExpect(status().isCreated());
+
+        // Act & Assert
+        mockMvc.perform(get("/products/search").param("q", "quasar espr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Quasar Espresso Machine")))
+                .andExpect(jsonPath("$[0].category", is("Kitchen")));
+    }
+
+    @Test
+    void getProductById_WithMatchingETag_ShouldReturnNotModifiedUntilProductChanges() throws Exception {
+        // Arrange
+        String eTag = mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+
+        // Act & Assert
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        ProductDTO updateDTO = ProductDTO.builder()
+                .name("Changed Product")
+                .category("Test")
+                .price(new BigDecimal("99.99"))
+                .availableStock(10)
+                .build();
+        mockMvc.perform(put("/products/{id}", testProduct.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Changed Product")));
+    }
+
+    @Test
+    void getAllProducts_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void reserveStock_UnderConcurrency_ShouldNeverOversell() throws Exception {
+        // Arrange
+        int attempts = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> reservations = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            reservations.add(() -> mockMvc.perform(post("/products/{id}/stock/reserve", testProduct.getProductId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quantity\":1}"))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        // Act
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            for (Future<Integer> result : executor.invokeAll(reservations)) {
+                statuses.add(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(10, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(attempts - 10, statuses.stream().filter(status -> status == 409).count());
+        assertEquals(0, productRepository.findById(testProduct.getProductId()).orElseThrow().getAvailableStock());
+    }
+
+    @Test
+    void releaseStock_ShouldRefreshCachedProduct() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(jsonPath("$.availableStock", is(10)));
+
+        // Act
+        mockMvc.perform(post("/products/{id}/stock/release", testProduct.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableStock", is(15)));
+
+        // Assert
+        mockMvc.perform(get("/products/{id}", testProduct.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableStock", is(15)));
+    }
 }
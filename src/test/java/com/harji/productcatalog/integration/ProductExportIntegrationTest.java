@@ -0,0 +1,169 @@
+package com.harji.productcatalog.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exports read two rows per cursor fetch, so every test spans several fetches.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.products.export.fetch-size=2",
+        "app.outbox.relay.enabled=false"
+})
+public class ProductExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void exportNdjson_WithCategory_ShouldStreamMatchingProductsCompressed() throws Exception {
+        // Arrange
+        Product kettle = save("Kettle", "Kitchen", "30.00");
+        save("Desk Lamp", "Lighting", "24.50");
+        Product toaster = save("Toaster", "Kitchen", "45.00");
+        Product blender = save("Blender", "Kitchen", "60.00");
+
+        // Act
+        byte[] body = mockMvc.perform(get("/products:export").param("category", "Kitchen"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products.ndjson.gz\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Assert
+        List<ProductDTO> products = gunzip(body).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, ProductDTO.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(List.of(kettle.getProductId(), toaster.getProductId(), blender.getProductId()),
+                products.stream().map(ProductDTO::getProductId).toList());
+        assertEquals(0, new BigDecimal("45.00").compareTo(products.get(1).getPrice()));
+    }
+
+    @Test
+    void exportCsv_WithUpdatedSince_ShouldExportOnlyLaterProducts() throws Exception {
+        // Arrange
+        save("Kettle", "Kitchen", "30.00");
+        Product later = save("Toaster", "Kitchen", "45.00");
+
+        // Act
+        byte[] body = mockMvc.perform(get("/products:export")
+                        .param("format", "csv")
+                        .param("updatedSince", later.getLastUpdated().toString()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Assert
+        List<String> lines = gunzip(body).lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("productId,name,description,category,price,availableStock,lastUpdated", lines.get(0));
+        assertTrue(lines.get(1).startsWith(later.getProductId() + ",Toaster,,Kitchen,45.00,1,"));
+    }
+
+    @Test
+    void exportCsv_ShouldImportBackWithoutChanges() throws Exception {
+        // Arrange
+        Product quoted = productRepository.save(Product.builder()
+                .name("Desk Lamp")
+                .description("Warm light, \"dimmable\"\nwith a long cable")
+                .category("Lighting")
+                .price(new BigDecimal("24.50"))
+                .availableStock(10)
+                .build());
+        save("Floor Lamp", "Lighting", "89.99");
+        byte[] body = mockMvc.perform(get("/products:export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.CSV_CONTENT_TYPE)
+                        .content(gunzip(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(2)))
+                .andExpect(jsonPath("$.unchanged", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+
+        assertEquals(quoted.getVersion(), productRepository.findById(quoted.getProductId()).orElseThrow()
+                .getVersion());
+    }
+
+    @Test
+    void export_WithUnsupportedFormat_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/products:export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Product save(String name, String category, String price) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .category(category)
+                .price(new BigDecimal(price))
+                .availableStock(1)
+                .build());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
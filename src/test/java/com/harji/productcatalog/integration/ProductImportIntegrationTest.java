@@ -0,0 +1,216 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.ProductEventOutboxService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Imports run in chunks of two records so that every test spans several COPY and merge transactions. Events are
+ * checked as they are recorded, since the relays of other cached test contexts may drain the outbox table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.products.import.chunk-size=2",
+        "app.products.import.max-record-length=300",
+        "app.outbox.relay.enabled=false"
+})
+public class ProductImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @SpyBean
+    private ProductEventOutboxService productEventOutboxService;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void importCsv_ShouldCreateValidRecordsAndReportRejectedOnes() throws Exception {
+        // Arrange
+        String csv = """
+                name,Category,price,availableStock,description
+                Desk Lamp,Lighting,24.50,10,"Warm light, ""dimmable""
+                with a long cable"
+                Broken Lamp,Lighting,12.00,-1,
+                Floor Lamp,Lighting,89.99,3,
+                Ceiling Lamp,Lighting,abc,1,
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.CSV_CONTENT_TYPE)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(4)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.rejections", hasSize(2)))
+                .andExpect(jsonPath("$.rejections[0].line", is(4)))
+                .andExpect(jsonPath("$.rejections[0].errors[0]", is("Available stock cannot be negative")))
+                .andExpect(jsonPath("$.rejections[1].line", is(6)))
+                .andExpect(jsonPath("$.rejections[1].errors[0]", is("Invalid price: abc")));
+
+        List<Product> products = productRepository.findAll();
+        assertEquals(2, products.size());
+        Product deskLamp = products.stream().filter(product -> product.getName().equals("Desk Lamp")).findFirst()
+                .orElseThrow();
+        assertEquals("Warm light, \"dimmable\"\nwith a long cable", deskLamp.getDescription());
+        assertEquals(0, new BigDecimal("24.50").compareTo(deskLamp.getPrice()));
+        assertEquals(0L, deskLamp.getVersion());
+        verify(productEventOutboxService, times(2)).record(eq(ProductEventType.PRODUCT_CREATED), any());
+        verify(productEventOutboxService, never()).recordChanges(any(), any(), any(), any());
+    }
+
+    @Test
+    void importNdjson_ShouldUpdateChangedProductsOnly() throws Exception {
+        // Arrange
+        Product changed = productRepository.save(Product.builder()
+                .name("Kettle")
+                .category("Kitchen")
+                .price(new BigDecimal("30.00"))
+                .availableStock(5)
+                .build());
+        Product unchanged = productRepository.save(Product.builder()
+                .name("Toaster")
+                .category("Kitchen")
+                .price(new BigDecimal("45.00"))
+                .availableStock(2)
+                .build());
+        UUID newProductId = UUID.randomUUID();
+        String ndjson = String.join("\n",
+                "{\"productId\":\"" + changed.getProductId() + "\",\"name\":\"Kettle\",\"category\":\"Kitchen\","
+                        + "\"price\":27.5,\"availableStock\":5}",
+                "{\"productId\":\"" + unchanged.getProductId() + "\",\"name\":\"Toaster\",\"category\":\"Kitchen\","
+                        + "\"price\":45,\"availableStock\":2}",
+                "",
+                "{\"name\":\"Blender\",",
+                "{\"productId\":\"" + newProductId + "\",\"name\":\"Mixer\",\"category\":\"Kitchen\","
+                        + "\"price\":99.00,\"availableStock\":1}");
+
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.NDJSON_CONTENT_TYPE)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(4)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.unchanged", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rejections[0].line", is(4)));
+
+        Product updated = productRepository.findById(changed.getProductId()).orElseThrow();
+        assertEquals(0, new BigDecimal("27.50").compareTo(updated.getPrice()));
+        assertEquals(changed.getVersion() + 1, updated.getVersion());
+        assertEquals(unchanged.getVersion(), productRepository.findById(unchanged.getProductId()).orElseThrow()
+                .getVersion());
+        assertTrue(productRepository.existsById(newProductId));
+
+        verify(productEventOutboxService).record(eq(ProductEventType.PRODUCT_CREATED),
+                argThat(product -> product.getProductId().equals(newProductId)));
+        verify(productEventOutboxService).recordChanges(
+                argThat(changes -> changes.getProductId().equals(changed.getProductId())),
+                eq(Set.of("price")), eq(updated.getVersion()), eq("Kitchen"));
+    }
+
+    @Test
+    void importCsv_WithOverlongRecord_ShouldRejectItAndResumeAtNextLine() throws Exception {
+        // Arrange
+        String csv = "name,category,price,availableStock,description\n"
+                + "Desk Lamp,Lighting,24.50,10,\"stray quote\n"
+                + "Wall Lamp,Lighting,19.00,4,\n"
+                + "x".repeat(400) + "\n"
+                + "Floor Lamp,Lighting,89.99,3,\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.CSV_CONTENT_TYPE)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(2)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rejections[0].line", is(2)))
+                .andExpect(jsonPath("$.rejections[0].errors[0]", is("Record is longer than 300 characters")));
+
+        List<Product> products = productRepository.findAll();
+        assertEquals(1, products.size());
+        assertEquals("Floor Lamp", products.get(0).getName());
+    }
+
+    @Test
+    void importNdjson_WithOverlongLine_ShouldRejectItAndResumeAtNextLine() throws Exception {
+        // Arrange
+        String ndjson = String.join("\n",
+                "{\"name\":\"Kettle\",\"category\":\"Kitchen\",\"description\":\"" + "x".repeat(400)
+                        + "\",\"price\":27.5,\"availableStock\":5}",
+                "{\"name\":\"Toaster\",\"category\":\"Kitchen\",\"price\":45,\"availableStock\":2}");
+
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.NDJSON_CONTENT_TYPE)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(2)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rejections[0].line", is(1)))
+                .andExpect(jsonPath("$.rejections[0].errors[0]", is("Record is longer than 300 characters")));
+
+        List<Product> products = productRepository.findAll();
+        assertEquals(1, products.size());
+        assertEquals("Toaster", products.get(0).getName());
+    }
+
+    @Test
+    void importCsv_WithMissingColumns_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/products:import")
+                        .contentType(ProductFileFormat.CSV_CONTENT_TYPE)
+                        .content("name,category\nLamp,Lighting\n"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, productRepository.count());
+    }
+}
@@ -0,0 +1,70 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+// Runs the outbox relay; closed so it cannot claim events that other test classes insert
+@DirtiesContext
+public class ProductMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void prometheusEndpoint_ShouldExposeLatencyHistogramsForEachLayer() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder()
+                .name("Metrics Product")
+                .category("Test")
+                .price(new BigDecimal("10.00"))
+                .availableStock(5)
+                .build());
+        mockMvc.perform(patch("/products/{id}", product.getProductId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"availableStock\": 6}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/products/{id}", product.getProductId()))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"PATCH\"")))
+                .andExpect(content().string(containsString(
+                        "product_service_seconds_bucket{class=\"com.harji.productcatalog.service.impl.ProductServiceImpl\"")))
+                .andExpect(content().string(containsString("method=\"patchProduct\"")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_bucket{exception=\"None\",method=\"patch\"")))
+                .andExpect(content().string(containsString("product_outbox_serialize_seconds_count")))
+                .andExpect(content().string(containsString("product_mapping_seconds_count")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")));
+    }
+}
@@ -0,0 +1,129 @@
+package com.harji.productcatalog.integration;
+
+import com.harji.productcatalog.domain.Product;
+import com.harji.productcatalog.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Uses the test database as its own "replica": it is not in recovery, so it reports no replication lag. The outbox
+ * relay is off so this context does not take events meant for the stream subscribers of other test contexts. The
+ * read-after-write window is long enough that it cannot close during a test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.datasource.replica.urls=${spring.datasource.url}",
+        "app.datasource.replica.read-after-write-ms=60000",
+        "app.outbox.relay.enabled=false"
+})
+public class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyRequests_ShouldBeServedFromReplica() throws Exception {
+        // Arrange
+        Product product = productRepository.save(Product.builder()
+                .name("Replica Product")
+                .category("Test")
+                .price(new BigDecimal("10.00"))
+                .availableStock(5)
+                .build());
+        awaitHealthyReplica();
+        double replicaConnectionsBefore = replicaConnections();
+
+        // Act
+        mockMvc.perform(get("/products/{id}", product.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Replica Product")));
+        mockMvc.perform(get("/products").param("category", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Replica Product")));
+
+        // Assert
+        assertTrue(replicaConnections() >= replicaConnectionsBefore + 2);
+    }
+
+    @Test
+    void writeRequests_ShouldBeServedFromPrimary() throws Exception {
+        // Arrange
+        awaitHealthyReplica();
+        double replicaConnectionsBefore = replicaConnections();
+
+        // Act
+        mockMvc.perform(post("/products")
+                        .contentType("application/json")
+                        .content("{\"name\":\"Primary Product\",\"category\":\"Test\",\"price\":5.00,\"availableStock\":1}"))
+                .andExpect(status().isCreated());
+
+        // Assert
+        assertEquals(replicaConnectionsBefore, replicaConnections());
+    }
+
+    @Test
+    void readsAfterWrite_ShouldUsePrimaryForWriterOnly() throws Exception {
+        // Arrange
+        awaitHealthyReplica();
+        Cookie lastWrite = mockMvc.perform(post("/products")
+                        .contentType("application/json")
+                        .content("{\"name\":\"Written Product\",\"category\":\"Test\",\"price\":5.00,\"availableStock\":1}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie("catalog-last-write");
+
+        // Act
+        double beforeOtherClient = replicaConnections();
+        mockMvc.perform(get("/products").param("category", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Written Product")));
+        double afterOtherClient = replicaConnections();
+        mockMvc.perform(get("/products").param("category", "Test").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Written Product")));
+        double afterWriter = replicaConnections();
+
+        // Assert
+        assertNotNull(lastWrite);
+        assertTrue(afterOtherClient > beforeOtherClient, "other client's read did not use the replica");
+        assertEquals(afterOtherClient, afterWriter, "writer's read used the replica");
+    }
+
+    private void awaitHealthyReplica() throws InterruptedException {
+        for (int i = 0; i < 50 && meterRegistry.get("product.datasource.replicas.healthy").gauge().value() < 1; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1.0, meterRegistry.get("product.datasource.replicas.healthy").gauge().value());
+    }
+
+    private double replicaConnections() {
+        return meterRegistry.get("product.datasource.connections").tag("target", "replica").counter().count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.harji.productcatalog.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// Its scheduled jobs, the outbox relay among them, would otherwise keep running under later tests
+@DirtiesContext
+public class SchedulingIntegrationTest {
+
+    @Autowired
+    private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void taskScheduler_ShouldHaveAThreadForEveryScheduledJob() {
+        // Arrange
+        int jobs = scheduledTaskHolders.stream()
+                .mapToInt(holder -> holder.getScheduledTasks().size())
+                .sum();
+
+        // Assert
+        assertTrue(jobs >= 4, "found " + jobs + " scheduled jobs");
+        assertTrue(taskScheduler.getPoolSize() >= jobs,
+                taskScheduler.getPoolSize() + " scheduler threads for " + jobs + " jobs");
+    }
+}
@@ -0,0 +1,77 @@
+package com.harji.productcatalog.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.impl.DefaultEventPublisherService;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultEventPublisherServiceTest {
+
+    private final Logger publisherLogger = (Logger) LoggerFactory.getLogger(DefaultEventPublisherService.class);
+    private ListAppender<ILoggingEvent> appender;
+    private Level previousLevel;
+    private DefaultEventPublisherService publisher;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        publisher = new DefaultEventPublisherService(new JsonEventSerializer(objectMapper));
+        ReflectionTestUtils.setField(publisher, "eventTopic", "product-events");
+        appender = new ListAppender<>();
+        appender.start();
+        previousLevel = publisherLogger.getLevel();
+        publisherLogger.setLevel(Level.DEBUG);
+        publisherLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisherLogger.detachAppender(appender);
+        publisherLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void publishProductEvents_WithDeltaEvent_ShouldKeepChangedFieldsAndVersion() {
+        // Arrange
+        ProductEventDTO delta = ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(LocalDateTime.now())
+                .product(ProductDTO.builder()
+                        .productId(UUID.randomUUID())
+                        .price(new BigDecimal("9.99"))
+                        .lastUpdated(LocalDateTime.now())
+                        .build())
+                .changedFields(List.of("price"))
+                .version(7L)
+                .build();
+
+        // Act
+        publisher.publishProductEvents(List.of(delta));
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("\"changedFields\":[\"price\"]"), message);
+        assertTrue(message.contains("\"version\":7"), message);
+    }
+}
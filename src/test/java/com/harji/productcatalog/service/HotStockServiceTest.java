@@ -0,0 +1,173 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.exception.InsufficientStockException;
+import com.harji.productcatalog.exception.ProductNotFoundException;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.impl.HotStockServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductEventOutboxService productEventOutboxService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private UUID productId;
+    private HotStockServiceImpl hotStockService;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        hotStockService = new HotStockServiceImpl(
+                productRepository, productEventOutboxService, transactionTemplate, Set.of(productId), 8);
+    }
+
+    @Test
+    void reserve_UnderConcurrency_ShouldNeverOversell() throws Exception {
+        // Arrange
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.of(1000));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> reservations = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int quantity = i % 3 + 1;
+            reservations.add(() -> {
+                try {
+                    hotStockService.reserve(productId, quantity);
+                    return true;
+                } catch (InsufficientStockException e) {
+                    return false;
+                }
+            });
+        }
+
+        // Act
+        int reserved = 0;
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(reservations);
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).get()) {
+                    reserved += i % 3 + 1;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        ProductDTO live = hotStockService.withLiveStock(ProductDTO.builder().productId(productId).build());
+        assertTrue(reserved <= 1000);
+        assertEquals(1000 - reserved, live.getAvailableStock());
+        assertTrue(live.getAvailableStock() < 3);
+    }
+
+    @Test
+    void reserve_WhenStockIsSpreadAcrossStripes_ShouldGatherIt() {
+        // Arrange
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.of(0));
+        hotStockService.release(productId, 1);
+        Thread other = new Thread(() -> hotStockService.release(productId, 1));
+        other.start();
+        assertDoesNotThrow(() -> other.join());
+
+        // Act
+        hotStockService.reserve(productId, 2);
+
+        // Assert
+        assertThrows(InsufficientStockException.class, () -> hotStockService.reserve(productId, 1));
+    }
+
+    @Test
+    void reserve_WhenProductDoesNotExist_ShouldThrowProductNotFoundException() {
+        // Arrange
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ProductNotFoundException.class, () -> hotStockService.reserve(productId, 1));
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyCountersChangedSinceLastFlush() {
+        // Arrange
+        executeInTransaction();
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.of(10));
+        when(productRepository.overwriteStock(eq(productId), eq(7), any(LocalDateTime.class))).thenReturn(1);
+        hotStockService.reserve(productId, 3);
+
+        // Act
+        int first = hotStockService.flush();
+        int second = hotStockService.flush();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        verify(productRepository, times(1)).overwriteStock(eq(productId), eq(7), any(LocalDateTime.class));
+        verify(productEventOutboxService).record(eq(ProductEventType.PRODUCT_STOCK_CHANGED), any(ProductDTO.class));
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldRetryOnNextFlush() {
+        // Arrange
+        executeInTransaction();
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.of(10));
+        when(productRepository.overwriteStock(eq(productId), eq(9), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(1);
+        hotStockService.reserve(productId, 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> hotStockService.flush());
+        assertEquals(1, hotStockService.flush());
+    }
+
+    @Test
+    void reset_OutsideTransaction_ShouldReplaceLiveStock() {
+        // Arrange
+        when(productRepository.findAvailableStockById(productId)).thenReturn(Optional.of(10));
+        hotStockService.reserve(productId, 4);
+
+        // Act
+        hotStockService.reset(productId, 50);
+
+        // Assert
+        assertEquals(50, hotStockService.withLiveStock(ProductDTO.builder().productId(productId).build())
+                .getAvailableStock());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executeInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
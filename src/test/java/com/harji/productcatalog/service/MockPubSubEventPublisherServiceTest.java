@@ -0,0 +1,124 @@
+package com.harji.productcatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import com.harji.productcatalog.service.impl.MockPubSubEventPublisherService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockPubSubEventPublisherServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectMapper objectMapper;
+    private MockPubSubEventPublisherService publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.destroy();
+    }
+
+    @Test
+    void publishProductEvents_WhenMessageCountIsReached_ShouldSendOneBatch() {
+        // Arrange
+        publisher = new MockPubSubEventPublisherService(new JsonEventSerializer(objectMapper), meterRegistry, "product-events", 3, 1_000_000, 60_000, 0);
+
+        // Act
+        publisher.publishProductEvents(events(3));
+
+        // Assert
+        DistributionSummary batchSize = meterRegistry.get("product.events.pubsub.batch.size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(3.0, batchSize.totalAmount());
+    }
+
+    @Test
+    void publishProductEvents_WhenBatchIsNotFull_ShouldSendAfterMaxDelay() {
+        // Arrange
+        publisher = new MockPubSubEventPublisherService(new JsonEventSerializer(objectMapper), meterRegistry, "product-events", 100, 1_000_000, 20, 0);
+
+        // Act
+        publisher.publishProductEvents(events(2));
+
+        // Assert
+        DistributionSummary batchSize = meterRegistry.get("product.events.pubsub.batch.size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(2.0, batchSize.totalAmount());
+        assertEquals(1, meterRegistry.get("product.events.pubsub.batch.latency").timer().count());
+    }
+
+    @Test
+    void publishProductEvents_WhenByteLimitIsReached_ShouldSplitBatches() throws Exception {
+        // Arrange
+        long messageBytes = new JsonEventSerializer(objectMapper).serialize(events(1).get(0)).length;
+        publisher = new MockPubSubEventPublisherService(
+                new JsonEventSerializer(objectMapper), meterRegistry, "product-events", 100, messageBytes * 2, 60_000, 0);
+
+        // Act
+        publisher.publishProductEvents(events(4));
+
+        // Assert
+        DistributionSummary batchSize = meterRegistry.get("product.events.pubsub.batch.size").summary();
+        assertEquals(2, batchSize.count());
+        assertEquals(4.0, batchSize.totalAmount());
+        assertTrue(meterRegistry.get("product.events.pubsub.batch.bytes").summary().max() <= messageBytes * 2);
+    }
+
+    @Test
+    void publishProductEvents_FromConcurrentCallers_ShouldShareBatches() throws Exception {
+        // Arrange
+        publisher = new MockPubSubEventPublisherService(new JsonEventSerializer(objectMapper), meterRegistry, "product-events", 40, 1_000_000, 50, 20);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(executor.submit(() -> publisher.publishProductEvents(events(5))));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        DistributionSummary batchSize = meterRegistry.get("product.events.pubsub.batch.size").summary();
+        assertEquals(40.0, batchSize.totalAmount());
+        assertTrue(batchSize.count() < 8, "expected callers to share batches but saw " + batchSize.count());
+    }
+
+    private List<ProductEventDTO> events(int count) {
+        List<ProductEventDTO> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(ProductEventDTO.builder()
+                    .eventType(ProductEventType.PRODUCT_UPDATED)
+                    .product(ProductDTO.builder().productId(UUID.randomUUID()).name("Product " + i).build())
+                    .build());
+        }
+        return events;
+    }
+}
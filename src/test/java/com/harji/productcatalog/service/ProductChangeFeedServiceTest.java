@@ -0,0 +1,125 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductChangesDTO;
+import com.harji.productcatalog.exception.InvalidRequestException;
+import com.harji.productcatalog.repository.ProductChange;
+import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.service.impl.ProductChangeFeedServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedServiceTest {
+
+    private static final UUID PRODUCT_ID = UUID.fromString("00000000-0000-0000-0000-000000000005");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductChangeFeedServiceImpl changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ProductChangeFeedServiceImpl(productRepository, 2);
+    }
+
+    @Test
+    void getChanges_WithoutCursor_ShouldStartFromBeginningAndReturnCursorOfLastRow() {
+        // Arrange
+        List<ProductChange> changes = List.of(change(100, UUID.randomUUID()), change(101, PRODUCT_ID));
+        when(productRepository.findChangesAfter("0", new UUID(0, 0), 2)).thenReturn(changes);
+        when(productRepository.findChangesAfter("101", PRODUCT_ID, 2)).thenReturn(List.of());
+        
+        // Act
+        ProductChangesDTO first = changeFeedService.getChanges(null, 2);
+        ProductChangesDTO second = changeFeedService.getChanges(first.getNextCursor(), 2);
+        
+        // Assert
+        assertEquals(2, first.getProducts().size());
+        assertTrue(first.isHasMore());
+        assertTrue(second.getProducts().isEmpty());
+        assertFalse(second.isHasMore());
+        assertEquals(first.getNextCursor(), second.getNextCursor());
+    }
+
+    @Test
+    void getChanges_WithMalformedCursor_ShouldThrowInvalidRequestException() {
+        // Act & Assert
+        assertThrows(InvalidRequestException.class, () -> changeFeedService.getChanges("not a cursor", 10));
+    }
+
+    @Test
+    void awaitChanges_ShouldCompleteOnceLatestPositionMovesPastCursor() {
+        // Arrange
+        List<ProductChange> changes = List.of(change(200, PRODUCT_ID));
+        when(productRepository.findChangesAfter("0", new UUID(0, 0), 10))
+                .thenReturn(List.of())
+                .thenReturn(changes);
+        when(productRepository.findLatestChangePosition())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of("200:" + PRODUCT_ID));
+        CompletableFuture<ProductChangesDTO> result = changeFeedService.awaitChanges(null, 10, Duration.ofSeconds(30));
+        
+        // Act
+        changeFeedService.completeWaiters();
+        boolean doneBeforeChange = result.isDone();
+        changeFeedService.completeWaiters();
+        
+        // Assert
+        assertFalse(doneBeforeChange);
+        assertEquals(1, result.join().getProducts().size());
+        verify(productRepository, times(2)).findChangesAfter(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void awaitChanges_WhenTimeoutPasses_ShouldCompleteWithEmptyPageAndSameCursor() {
+        // Arrange
+        when(productRepository.findChangesAfter(anyString(), any(), anyInt())).thenReturn(List.of());
+        when(productRepository.findLatestChangePosition()).thenReturn(Optional.empty());
+        CompletableFuture<ProductChangesDTO> result = changeFeedService.awaitChanges(null, 10, Duration.ofNanos(1));
+        
+        // Act
+        changeFeedService.completeWaiters();
+        
+        // Assert
+        assertTrue(result.getNow(null).getProducts().isEmpty());
+        assertEquals(changeFeedService.getChanges(null, 10).getNextCursor(), result.join().getNextCursor());
+    }
+
+    @Test
+    void awaitChanges_WhenWaiterLimitIsReached_ShouldAnswerImmediately() {
+        // Arrange
+        when(productRepository.findChangesAfter(anyString(), any(), anyInt())).thenReturn(List.of());
+        changeFeedService.awaitChanges(null, 10, Duration.ofSeconds(30));
+        changeFeedService.awaitChanges(null, 10, Duration.ofSeconds(30));
+        
+        // Act
+        CompletableFuture<ProductChangesDTO> third = changeFeedService.awaitChanges(null, 10, Duration.ofSeconds(30));
+        
+        // Assert
+        assertTrue(third.isDone());
+        assertTrue(third.join().getProducts().isEmpty());
+    }
+
+    private ProductChange change(long changeXid, UUID productId) {
+        ProductChange change = mock(ProductChange.class);
+        lenient().when(change.getProductId()).thenReturn(productId);
+        lenient().when(change.getChangeXid()).thenReturn(Long.toString(changeXid));
+        return change;
+    }
+}
@@ -0,0 +1,104 @@
+package com.harji.productcatalog.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.impl.ProductEventAuditServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductEventAuditServiceTest {
+
+    private final Logger auditLogger = (Logger) LoggerFactory.getLogger(ProductEventAuditServiceImpl.AUDIT_LOGGER);
+    private ListAppender<ILoggingEvent> appender;
+    private Level previousLevel;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        appender = new ListAppender<>();
+        appender.start();
+        previousLevel = auditLogger.getLevel();
+        auditLogger.setLevel(Level.INFO);
+        auditLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLogger.detachAppender(appender);
+        auditLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void audit_ShouldApplySampleRatePerEventType() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.audit.sample-rate.default", "1.0")
+                .withProperty("app.audit.sample-rate.product-stock-changed", "0.0");
+        ProductEventAuditService auditService = new ProductEventAuditServiceImpl(objectMapper, environment, false);
+        
+        // Act
+        for (int i = 0; i < 10; i++) {
+            auditService.audit(event(ProductEventType.PRODUCT_STOCK_CHANGED), "published");
+        }
+        auditService.audit(event(ProductEventType.PRODUCT_CREATED), "published");
+        
+        // Assert
+        assertEquals(1, appender.list.size());
+        Map<String, Object> entry = keyValues(appender.list.get(0));
+        assertEquals(ProductEventType.PRODUCT_CREATED, entry.get("eventType"));
+        assertEquals("published", entry.get("outcome"));
+        assertEquals(7L, entry.get("version"));
+        assertFalse(entry.containsKey("payload"));
+    }
+
+    @Test
+    void audit_WhenPayloadIncluded_ShouldSerializeItOnlyWhenFormatted() throws Exception {
+        // Arrange
+        ProductEventAuditService auditService =
+                new ProductEventAuditServiceImpl(objectMapper, new MockEnvironment(), true);
+        ProductEventDTO event = event(ProductEventType.PRODUCT_UPDATED);
+        
+        // Act
+        auditService.audit(event, "failed");
+        
+        // Assert
+        Object payload = keyValues(appender.list.get(0)).get("payload");
+        assertFalse(payload instanceof String);
+        ProductEventDTO logged = objectMapper.readValue(payload.toString(), ProductEventDTO.class);
+        assertEquals(event.getProduct().getProductId(), logged.getProduct().getProductId());
+    }
+
+    private static ProductEventDTO event(ProductEventType eventType) {
+        return ProductEventDTO.builder()
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .product(ProductDTO.builder().productId(UUID.randomUUID()).availableStock(3).build())
+                .changedFields(List.of("availableStock"))
+                .version(7L)
+                .build();
+    }
+
+    private static Map<String, Object> keyValues(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
@@ -0,0 +1,232 @@
+package com.harji.productcatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.config.ReplicaStalenessGuard;
+import com.harji.productcatalog.domain.OutboxEvent;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.repository.OutboxEventRepository;
+import com.harji.productcatalog.service.impl.ProductEventOutboxServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductEventOutboxServiceTest {
+
+    private static final int BATCH_SIZE = 4;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private AsyncEventPublisherService asyncEventPublisherService;
+
+    @Mock
+    private ProductEventStreamService productEventStreamService;
+
+    @Mock
+    private ProductEventAuditService productEventAuditService;
+
+    private ObjectMapper objectMapper;
+    private ProductEventOutboxServiceImpl outboxService;
+    private ProductDTO productDTO;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        outboxService = new ProductEventOutboxServiceImpl(
+                outboxEventRepository, asyncEventPublisherService, productEventStreamService, productEventAuditService,
+                new ReplicaStalenessGuard(0), objectMapper, new SimpleMeterRegistry(), BATCH_SIZE, 1000);
+
+        productDTO = ProductDTO.builder()
+                .productId(UUID.randomUUID())
+                .name("Test Product")
+                .category("Test Category")
+                .price(new BigDecimal("99.99"))
+                .availableStock(10)
+                .build();
+    }
+
+    @Test
+    void record_ShouldStoreSerializedProductWithoutPublishing() throws Exception {
+        // Act
+        outboxService.record(ProductEventType.PRODUCT_CREATED, productDTO);
+        
+        // Assert
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        assertEquals(ProductEventType.PRODUCT_CREATED, captor.getValue().getEventType());
+        assertEquals(productDTO.getProductId(), captor.getValue().getProductId());
+        assertEquals(productDTO, objectMapper.readValue(captor.getValue().getPayload(), ProductDTO.class));
+        
+        verifyNoInteractions(asyncEventPublisherService);
+    }
+
+    @Test
+    void relayNextBatch_ShouldPublishDeltaEventWithChangedFieldsAndVersion() throws Exception {
+        // Arrange
+        ProductDTO changes = ProductDTO.builder().productId(productDTO.getProductId()).availableStock(3).build();
+        outboxService.recordChanges(changes, new LinkedHashSet<>(List.of("price", "availableStock")), 4L,
+                "Test Category");
+        ArgumentCaptor<OutboxEvent> stored = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(stored.capture());
+        stored.getValue().setId(1L);
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong()))
+                .thenReturn(List.of(stored.getValue()));
+        when(asyncEventPublisherService.publishProductEventAsync(any(ProductEventDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // Act
+        outboxService.relayNextBatch();
+        
+        // Assert
+        ArgumentCaptor<ProductEventDTO> captor = ArgumentCaptor.forClass(ProductEventDTO.class);
+        verify(asyncEventPublisherService).publishProductEventAsync(captor.capture());
+        assertEquals(ProductEventType.PRODUCT_UPDATED, captor.getValue().getEventType());
+        assertEquals(List.of("price", "availableStock"), captor.getValue().getChangedFields());
+        assertEquals(4L, captor.getValue().getVersion());
+        assertEquals(changes, captor.getValue().getProduct());
+        verify(productEventStreamService).broadcast(captor.getValue(), "Test Category");
+    }
+
+    @Test
+    void relayNextBatch_ShouldPublishPendingEventsInOrderAndDeleteThem() throws Exception {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        OutboxEvent first = OutboxEvent.builder().id(1L).eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .createdAt(createdAt).build();
+        OutboxEvent second = OutboxEvent.builder().id(2L).eventType(ProductEventType.PRODUCT_UPDATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .createdAt(createdAt).build();
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong())).thenReturn(List.of(first, second));
+        when(asyncEventPublisherService.publishProductEventAsync(any(ProductEventDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // Act
+        int relayed = outboxService.relayNextBatch();
+        
+        // Assert
+        assertEquals(2, relayed);
+        ArgumentCaptor<ProductEventDTO> captor = ArgumentCaptor.forClass(ProductEventDTO.class);
+        verify(asyncEventPublisherService, times(2)).publishProductEventAsync(captor.capture());
+        assertEquals(ProductEventType.PRODUCT_CREATED, captor.getAllValues().get(0).getEventType());
+        assertEquals(ProductEventType.PRODUCT_UPDATED, captor.getAllValues().get(1).getEventType());
+        assertEquals(createdAt, captor.getAllValues().get(0).getTimestamp());
+        assertEquals(productDTO, captor.getAllValues().get(0).getProduct());
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayNextBatch_WhenSomeEventsFail_ShouldDeleteOnlyAcknowledgedEvents() throws Exception {
+        // Arrange
+        OutboxEvent first = OutboxEvent.builder().id(1L).eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        OutboxEvent second = OutboxEvent.builder().id(2L).eventType(ProductEventType.PRODUCT_UPDATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong())).thenReturn(List.of(first, second));
+        when(asyncEventPublisherService.publishProductEventAsync(any(ProductEventDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        
+        // Act
+        int relayed = outboxService.relayNextBatch();
+        
+        // Assert
+        assertEquals(1, relayed);
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository, times(1)).releaseClaims(List.of(2L));
+        verify(productEventStreamService, times(1)).broadcast(any(ProductEventDTO.class), any());
+        verify(productEventAuditService, times(1)).audit(any(ProductEventDTO.class), eq("published"));
+        verify(productEventAuditService, times(1)).audit(any(ProductEventDTO.class), eq("failed"));
+    }
+
+    @Test
+    void relayNextBatch_WhenPublishFails_ShouldKeepEventsForRetry() throws Exception {
+        // Arrange
+        OutboxEvent event = OutboxEvent.builder().id(1L).eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong())).thenReturn(List.of(event));
+        when(asyncEventPublisherService.publishProductEventAsync(any(ProductEventDTO.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        
+        // Act
+        int relayed = outboxService.relayNextBatch();
+        
+        // Assert
+        assertEquals(0, relayed);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository, times(1)).releaseClaims(List.of(1L));
+    }
+
+    @Test
+    void relayNextBatch_WhenEarlierEventFails_ShouldNotPublishLaterEventsForSameProduct() throws Exception {
+        // Arrange
+        UUID otherProductId = UUID.randomUUID();
+        OutboxEvent first = OutboxEvent.builder().id(1L).eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        OutboxEvent other = OutboxEvent.builder().id(2L).eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(otherProductId).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        OutboxEvent second = OutboxEvent.builder().id(3L).eventType(ProductEventType.PRODUCT_UPDATED)
+                .productId(productDTO.getProductId()).payload(objectMapper.writeValueAsString(productDTO))
+                .build();
+        // Claimed rows come back in no particular order
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong()))
+                .thenReturn(List.of(second, other, first));
+        when(asyncEventPublisherService.publishProductEventAsync(any(ProductEventDTO.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("queue full")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // Act
+        int relayed = outboxService.relayNextBatch();
+        
+        // Assert
+        assertEquals(1, relayed);
+        ArgumentCaptor<ProductEventDTO> captor = ArgumentCaptor.forClass(ProductEventDTO.class);
+        verify(asyncEventPublisherService, times(2)).publishProductEventAsync(captor.capture());
+        assertEquals(List.of(ProductEventType.PRODUCT_CREATED, ProductEventType.PRODUCT_CREATED),
+                captor.getAllValues().stream().map(ProductEventDTO::getEventType).toList());
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(2L));
+        verify(outboxEventRepository, times(1)).releaseClaims(List.of(1L, 3L));
+        verify(productEventAuditService, times(1)).audit(any(ProductEventDTO.class), eq("failed"));
+    }
+
+    @Test
+    void relayNextBatch_WhenOutboxEmpty_ShouldNotPublish() {
+        // Arrange
+        when(outboxEventRepository.claimNextBatch(eq(BATCH_SIZE), anyLong())).thenReturn(List.of());
+        
+        // Act
+        int relayed = outboxService.relayNextBatch();
+        
+        // Assert
+        assertEquals(0, relayed);
+        verifyNoInteractions(asyncEventPublisherService);
+    }
+}
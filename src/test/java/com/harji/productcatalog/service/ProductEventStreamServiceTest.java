@@ -0,0 +1,206 @@
+package com.harji.productcatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.exception.SubscriberLimitExceededException;
+import com.harji.productcatalog.service.impl.ProductEventStreamServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductEventStreamServiceTest {
+
+    private ProductEventStreamServiceImpl streamService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        streamService = new ProductEventStreamServiceImpl(objectMapper, new MockEnvironment(), 2, 4, 60000, 2, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.destroy();
+    }
+
+    @Test
+    void subscribe_WhenSubscriberLimitReached_ShouldRejectNewSubscriber() {
+        // Arrange
+        streamService.subscribe(null);
+        streamService.subscribe("Electronics");
+        
+        // Act & Assert
+        assertThrows(SubscriberLimitExceededException.class, () -> streamService.subscribe("Books"));
+        assertEquals(2, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void broadcast_ShouldKeepSubscribersWhoseBuffersHaveRoom() {
+        // Arrange
+        streamService.subscribe("Electronics");
+        ProductEventDTO event = ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(LocalDateTime.now())
+                .product(ProductDTO.builder().productId(UUID.randomUUID()).availableStock(3).build())
+                .build();
+        
+        // Act
+        streamService.broadcast(event, "Electronics");
+        streamService.broadcast(event, "Books");
+        
+        // Assert
+        assertEquals(1, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void broadcast_WhenOneSubscriberStalls_ShouldKeepDeliveringToOthers() throws Exception {
+        // Arrange
+        CountDownLatch stalledSendStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        connect(streamService.subscribe("Electronics"), frame -> {
+            stalledSendStarted.countDown();
+            release.await();
+        });
+        BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+        connect(streamService.subscribe("Electronics"), received::add);
+        streamService.broadcast(event(), "Electronics");
+        assertTrue(stalledSendStarted.await(5, TimeUnit.SECONDS));
+
+        try {
+            // Act
+            for (int i = 0; i < 3; i++) {
+                streamService.broadcast(event(), "Electronics");
+            }
+
+            // Assert
+            for (int i = 0; i < 4; i++) {
+                assertNotNull(received.poll(5, TimeUnit.SECONDS), "frame " + i + " was not delivered");
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void broadcast_WhenEveryWriterIsStalled_ShouldQueueOtherSubscribersUntilOneFrees() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        ProductEventStreamServiceImpl singleWriterService = new ProductEventStreamServiceImpl(
+                objectMapper, new MockEnvironment(), 2, 4, 60000, 1, 200);
+        CountDownLatch stalledSendStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        connect(singleWriterService.subscribe("Electronics"), frame -> {
+            stalledSendStarted.countDown();
+            release.await();
+        });
+        singleWriterService.broadcast(event(), "Electronics");
+        assertTrue(stalledSendStarted.await(5, TimeUnit.SECONDS));
+        BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+        connect(singleWriterService.subscribe("Electronics"), received::add);
+
+        try {
+            // Act
+            singleWriterService.broadcast(event(), "Electronics");
+            byte[] whileStalled = received.poll(200, TimeUnit.MILLISECONDS);
+            release.countDown();
+
+            // Assert
+            assertNull(whileStalled);
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+            assertEquals(2, singleWriterService.getSubscriberCount());
+        } finally {
+            release.countDown();
+            singleWriterService.destroy();
+        }
+    }
+
+    @Test
+    void sendHeartbeats_WhenSendStalledPastTimeout_ShouldEvictSubscriber() throws Exception {
+        // Arrange
+        CountDownLatch stalledSendStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        connect(streamService.subscribe("Electronics"), frame -> {
+            stalledSendStarted.countDown();
+            release.await();
+        });
+        connect(streamService.subscribe("Electronics"), frame -> { });
+        streamService.broadcast(event(), "Electronics");
+        assertTrue(stalledSendStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+
+        try {
+            // Act
+            streamService.sendHeartbeats();
+
+            // Assert
+            assertEquals(1, streamService.getSubscriberCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void destroy_ShouldCloseAllSubscribers() {
+        // Arrange
+        streamService.subscribe(null);
+        streamService.subscribe("Electronics");
+        
+        // Act
+        streamService.destroy();
+        
+        // Assert
+        assertEquals(0, streamService.getSubscriberCount());
+    }
+
+    private static ProductEventDTO event() {
+        return ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(LocalDateTime.now())
+                .product(ProductDTO.builder().productId(UUID.randomUUID()).availableStock(3).build())
+                .build();
+    }
+
+    /**
+     * Stands in for the servlet response an emitter writes to, handing each frame sent to {@code sink} on the
+     * writer thread. Spring keeps this hook package-private, so it is reached reflectively.
+     */
+    private static void connect(SseEmitter emitter, FrameSink sink) throws Exception {
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("send") && args.length == 1) {
+                        for (Object item : (Set<?>) args[0]) {
+                            sink.accept((byte[]) ((ResponseBodyEmitter.DataWithMediaType) item).getData());
+                        }
+                    }
+                    return null;
+                });
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+    }
+
+    private interface FrameSink {
+        void accept(byte[] frame) throws Exception;
+    }
+}
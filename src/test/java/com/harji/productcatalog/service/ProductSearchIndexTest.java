@@ -0,0 +1,200 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductSearchHitDTO;
+import com.harji.productcatalog.service.impl.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+    private UUID phoneId;
+    private UUID laptopId;
+    private UUID caseId;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(64, 0.5);
+        phoneId = UUID.randomUUID();
+        laptopId = UUID.randomUUID();
+        caseId = UUID.randomUUID();
+
+        index.index(product(phoneId, "Smartphone X1", "Latest smartphone with advanced features", "Electronics"));
+        index.index(product(laptopId, "UltraBook Pro", "Lightweight laptop with 16GB RAM", "Computers"));
+        index.index(product(caseId, "Phone Case", "Protective case for the Smartphone X1", "Accessories"));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // Act
+        List<ProductSearchHitDTO> hits = index.search("smartphone", 10);
+        
+        // Assert
+        assertEquals(2, hits.size());
+        assertEquals(phoneId, hits.get(0).getProductId());
+        assertEquals(caseId, hits.get(1).getProductId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_ShouldRequireEveryTokenToMatch() {
+        // Act
+        List<ProductSearchHitDTO> hits = index.search("smartphone case", 10);
+        
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals(caseId, hits.get(0).getProductId());
+    }
+
+    @Test
+    void search_ShouldMatchLastTokenAsPrefix() {
+        // Act
+        List<ProductSearchHitDTO> hits = index.search("ultra", 10);
+        
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals(laptopId, hits.get(0).getProductId());
+        assertTrue(index.search("ultra book", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldHonourLimit() {
+        // Act & Assert
+        assertEquals(1, index.search("smartphone", 1).size());
+        assertEquals(phoneId, index.search("smartphone", 1).get(0).getProductId());
+    }
+
+    @Test
+    void index_WhenProductUpdated_ShouldReplacePreviousVersion() {
+        // Act
+        index.index(product(laptopId, "Gaming Rig", "Desktop tower", "Computers"));
+        
+        // Assert
+        assertTrue(index.search("ultrabook", 10).isEmpty());
+        assertEquals(laptopId, index.search("gaming", 10).get(0).getProductId());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void index_WhenVersionIsOlderThanIndexed_ShouldIgnoreIt() {
+        // Arrange
+        ProductDTO stale = product(phoneId, "Old Name", null, "Electronics");
+        stale.setLastUpdated(LocalDateTime.of(2000, 1, 1, 0, 0));
+        
+        // Act
+        index.index(stale);
+        
+        // Assert
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(phoneId, index.search("smartphone x1", 10).get(0).getProductId());
+    }
+
+    @Test
+    void compact_ShouldKeepLiveDocumentsSearchable() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            index.index(product(caseId, "Phone Case v" + i, null, "Accessories"));
+        }
+        
+        // Act
+        index.compact();
+        
+        // Assert
+        assertEquals(3, index.size());
+        assertEquals(caseId, index.search("v4", 10).get(0).getProductId());
+        assertTrue(index.search("v3", 10).isEmpty());
+        assertEquals(phoneId, index.search("smartphone x1", 10).get(0).getProductId());
+    }
+
+    @Test
+    void search_ShouldExpandPrefixToMostFrequentTerms() {
+        // Arrange
+        ProductSearchIndex narrow = new ProductSearchIndex(1, 0.5);
+        narrow.index(product(UUID.randomUUID(), "Phablet", null, "Electronics"));
+        narrow.index(product(UUID.randomUUID(), "Phone Stand", null, "Accessories"));
+        narrow.index(product(UUID.randomUUID(), "Phone Charger", null, "Accessories"));
+        
+        // Act
+        List<ProductSearchHitDTO> hits = narrow.search("ph", 10);
+        
+        // Assert
+        assertEquals(List.of("Phone Stand", "Phone Charger"),
+                hits.stream().map(ProductSearchHitDTO::getName).sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void search_ShouldFindBestHitsIndexedAfterManyWeakerOnes() {
+        // Arrange
+        for (int i = 0; i < 200; i++) {
+            index.index(product(UUID.randomUUID(), "Cable " + i, "Wireless compatible", "Accessories"));
+        }
+        List<UUID> wired = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID productId = UUID.randomUUID();
+            wired.add(productId);
+            index.index(product(productId, "Wired Keyboard " + i, null, "Computers"));
+        }
+        
+        // Act
+        List<ProductSearchHitDTO> hits = index.search("wir", 3);
+        
+        // Assert
+        assertEquals(Set.copyOf(wired),
+                hits.stream().map(ProductSearchHitDTO::getProductId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void compact_WhileProductsAreUpdated_ShouldKeepEveryUpdate() throws Exception {
+        // Arrange
+        List<UUID> productIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            productIds.add(UUID.randomUUID());
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread compactor = new Thread(() -> {
+            while (writing.get()) {
+                index.compact();
+            }
+        });
+        compactor.start();
+        
+        // Act
+        for (int generation = 0; generation < 20; generation++) {
+            for (UUID productId : productIds) {
+                index.index(product(productId, "Gadget gen" + generation, null, "Electronics"));
+            }
+        }
+        writing.set(false);
+        compactor.join();
+        
+        // Assert
+        assertEquals(203, index.size());
+        assertEquals(200, index.search("gen19", 500).size());
+        assertTrue(index.search("gen18", 500).isEmpty());
+        index.compact();
+        assertEquals(200, index.search("gadget", 500).size());
+        assertEquals(phoneId, index.search("smartphone x1", 10).get(0).getProductId());
+    }
+
+    private ProductDTO product(UUID productId, String name, String description, String category) {
+        return ProductDTO.builder()
+                .productId(productId)
+                .name(name)
+                .description(description)
+                .category(category)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,26 +1,60 @@
 package com.harji.productcatalog.service;
 
+import com.harji.productcatalog.config.CacheConfig;
 import com.harji.productcatalog.domain.Product;
 import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.BatchItemResultDTO;
+import com.harji.productcatalog.dto.BatchResultDTO;
 import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductFileFormat;
+import com.harji.productcatalog.dto.ProductImportResultDTO;
+import com.harji.productcatalog.dto.ProductPageDTO;
+import com.harji.productcatalog.dto.ProductSearchCriteria;
+import com.harji.productcatalog.dto.StockLevelDTO;
+import com.harji.productcatalog.exception.InsufficientStockException;
+import com.harji.productcatalog.exception.InvalidRequestException;
 import com.harji.productcatalog.exception.ProductNotFoundException;
+import com.harji.productcatalog.repository.ProductImportResult;
+import com.harji.productcatalog.repository.ProductPatchResult;
 import com.harji.productcatalog.repository.ProductRepository;
+import com.harji.productcatalog.repository.StockLevel;
+import com.harji.productcatalog.repository.VersionedProduct;
 import com.harji.productcatalog.service.impl.ProductServiceImpl;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +64,22 @@ class ProductServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private EventPublisherService eventPublisherService;
+    private ProductEventOutboxService productEventOutboxService;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private CacheManager cacheManager;
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -38,6 +87,7 @@ class ProductServiceTest {
     private UUID productId;
     private Product product;
     private ProductDTO productDTO;
+    private ProductDTO storedProductDTO;
 
     @BeforeEach
     void setUp() {
@@ -52,6 +102,7 @@ class ProductServiceTest {
                 .availableStock(10)
                 .createdAt(LocalDateTime.now())
                 .lastUpdated(LocalDateTime.now())
+                .version(0L)
                 .build();
         
         productDTO = ProductDTO.builder()
@@ -61,6 +112,16 @@ class ProductServiceTest {
                 .price(new BigDecimal("99.99"))
                 .availableStock(10)
                 .build();
+
+        storedProductDTO = productDTO.toBuilder()
+                .productId(productId)
+                .lastUpdated(product.getLastUpdated())
+                .build();
+
+        ReflectionTestUtils.setField(productService, "batchChunkSize", 2);
+        ReflectionTestUtils.setField(productService, "importChunkSize", 2);
+        ReflectionTestUtils.setField(productService, "maxRecordLength", 1000);
+        ReflectionTestUtils.setField(productService, "maxReportedRejections", 10);
     }
 
     @Test
@@ -81,7 +142,8 @@ class ProductServiceTest {
         assertEquals(productDTO.getAvailableStock(), result.getAvailableStock());
         
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(eventPublisherService, times(1)).publishProductEvent(eq(ProductEventType.PRODUCT_CREATED), any(ProductDTO.class));
+        verify(productEventOutboxService, times(1)).record(eq(ProductEventType.PRODUCT_CREATED), any(ProductDTO.class));
+        verify(productSearchService, times(1)).index(any(ProductDTO.class));
     }
 
     @Test
@@ -89,6 +151,7 @@ class ProductServiceTest {
         // Arrange
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
+        productDTO.setAvailableStock(4);
         
         // Act
         ProductDTO result = productService.updateProduct(productId, productDTO);
@@ -97,10 +160,53 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(productId, result.getProductId());
         assertEquals(productDTO.getName(), result.getName());
+        assertEquals(4, result.getAvailableStock());
         
         verify(productRepository, times(1)).findById(productId);
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(eventPublisherService, times(1)).publishProductEvent(eq(ProductEventType.PRODUCT_UPDATED), any(ProductDTO.class));
+        verify(productEventOutboxService, never()).record(any(ProductEventType.class), any(ProductDTO.class));
+    }
+
+    @Test
+    void updateProduct_WhenOnlyStockChanged_ShouldRecordDeltaEventWithStockOnly() {
+        // Arrange
+        product.setVersion(3L);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productDTO.setAvailableStock(4);
+        productDTO.setPrice(new BigDecimal("99.990"));
+        ArgumentCaptor<ProductDTO> changes = ArgumentCaptor.forClass(ProductDTO.class);
+        
+        // Act
+        productService.updateProduct(productId, productDTO);
+        
+        // Assert
+        verify(productEventOutboxService).recordChanges(changes.capture(), eq(Set.of("availableStock")), eq(3L),
+                eq(product.getCategory()));
+        assertEquals(productId, changes.getValue().getProductId());
+        assertEquals(4, changes.getValue().getAvailableStock());
+        assertNull(changes.getValue().getName());
+        assertNull(changes.getValue().getDescription());
+        assertNull(changes.getValue().getPrice());
+        verify(productSearchService, never()).index(any(ProductDTO.class));
+    }
+
+    @Test
+    void updateProduct_WhenNothingChanged_ShouldSkipWriteAndEvent() {
+        // Arrange
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        
+        // Act
+        ProductDTO result = productService.updateProduct(productId, productDTO);
+        
+        // Assert
+        assertEquals(productId, result.getProductId());
+        assertEquals(product.getLastUpdated(), result.getLastUpdated());
+        
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).flush();
+        verify(productEventOutboxService, never()).recordChanges(any(), anySet(), any(), any());
+        verify(productSearchService, never()).index(any(ProductDTO.class));
     }
 
     @Test
@@ -113,14 +219,66 @@ class ProductServiceTest {
         
         verify(productRepository, times(1)).findById(productId);
         verify(productRepository, never()).save(any(Product.class));
-        verify(eventPublisherService, never()).publishProductEvent(any(ProductEventType.class), any(ProductDTO.class));
+        verify(productEventOutboxService, never()).record(any(ProductEventType.class), any(ProductDTO.class));
     }
 
     @Test
-    void getProductById_WhenProductExists_ShouldReturnProductDTO() {
+    void patchProduct_ShouldRecordDeltaEventForChangedColumnsOnly() {
+        // Arrange
+        ProductDTO changes = ProductDTO.builder().price(new BigDecimal("99.99")).availableStock(4).build();
+        ProductPatchResult patched = mock(ProductPatchResult.class);
+        when(patched.getProductId()).thenReturn(productId);
+        when(patched.getAvailableStock()).thenReturn(4);
+        when(patched.getVersion()).thenReturn(8L);
+        when(patched.getAvailableStockChanged()).thenReturn(true);
+        when(productRepository.patch(eq(productId), eq(changes), eq(Set.of("price", "availableStock")), any()))
+                .thenReturn(Optional.of(patched));
+        
+        // Act
+        ProductDTO result = productService.patchProduct(productId, changes, Set.of("price", "availableStock"));
+        
+        // Assert
+        assertEquals(4, result.getAvailableStock());
+        verify(productRepository, never()).findById(any());
+        verify(productEventOutboxService).recordChanges(
+                eq(ProductDTO.builder().productId(productId).availableStock(4).build()),
+                eq(Set.of("availableStock")), eq(8L), any());
+        verify(productSearchService, never()).index(any(ProductDTO.class));
+    }
+
+    @Test
+    void patchProduct_WhenNothingChanged_ShouldReturnStoredProductWithoutEvent() {
         // Arrange
+        ProductDTO changes = ProductDTO.builder().availableStock(10).build();
+        when(productRepository.patch(eq(productId), eq(changes), eq(Set.of("availableStock")), any()))
+                .thenReturn(Optional.empty());
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         
+        // Act
+        ProductDTO result = productService.patchProduct(productId, changes, Set.of("availableStock"));
+        
+        // Assert
+        assertEquals(productId, result.getProductId());
+        verify(productEventOutboxService, never()).recordChanges(any(), anySet(), any(), any());
+    }
+
+    @Test
+    void patchProduct_WhenProductDoesNotExist_ShouldThrowProductNotFoundException() {
+        // Arrange
+        when(productRepository.patch(eq(productId), any(), anySet(), any())).thenReturn(Optional.empty());
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThrows(ProductNotFoundException.class, () -> productService.patchProduct(productId,
+                ProductDTO.builder().availableStock(1).build(), Set.of("availableStock")));
+    }
+
+    @Test
+    void getProductById_WhenProductExists_ShouldReturnProductDTO() {
+        // Arrange
+        when(productRepository.findVersionedProductById(productId))
+                .thenReturn(Optional.of(new VersionedProduct(storedProductDTO, 0)));
+        
         // Act
         ProductDTO result = productService.getProductById(productId);
         
@@ -129,33 +287,492 @@ class ProductServiceTest {
         assertEquals(productId, result.getProductId());
         assertEquals(product.getName(), result.getName());
         
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).findVersionedProductById(productId);
+        verify(productRepository, never()).findById(any());
     }
 
     @Test
     void getProductById_WhenProductDoesNotExist_ShouldThrowProductNotFoundException() {
         // Arrange
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findVersionedProductById(productId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById(productId));
         
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).findVersionedProductById(productId);
+    }
+
+    @Test
+    void getProductById_WhenWriteCachesNewerVersionDuringLoad_ShouldKeepNewerVersion() {
+        // Arrange
+        Cache cache = productsCache();
+        ProductDTO renamed = storedProductDTO.toBuilder().name("Renamed Product").build();
+        when(productRepository.findVersionedProductById(productId)).thenAnswer(invocation -> {
+            // An update commits and caches its version while this read still holds the old row
+            cache.put(productId, new VersionedProduct(renamed, 1));
+            return Optional.of(new VersionedProduct(storedProductDTO, 0));
+        });
+
+        // Act
+        ProductDTO loaded = productService.getProductById(productId);
+        ProductDTO cached = productService.getProductById(productId);
+
+        // Assert
+        assertEquals("Test Product", loaded.getName());
+        assertEquals("Renamed Product", cached.getName());
+        verify(productRepository, times(1)).findVersionedProductById(productId);
+    }
+
+    @Test
+    void updateProduct_WhenNewerVersionAlreadyCached_ShouldNotReplaceIt() {
+        // Arrange
+        Cache cache = productsCache();
+        ProductDTO newer = storedProductDTO.toBuilder().name("Newer Product").build();
+        cache.put(productId, new VersionedProduct(newer, 5));
+        productDTO.setName("Older Product");
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        // Act
+        productService.updateProduct(productId, productDTO);
+
+        // Assert
+        assertEquals("Newer Product", cache.get(productId, VersionedProduct.class).product().getName());
+    }
+
+    @Test
+    void reserveStock_WhenEnoughStock_ShouldRecordStockChangedEvent() {
+        // Arrange
+        inTransaction();
+        StockLevel stockLevel = mock(StockLevel.class);
+        when(stockLevel.getProductId()).thenReturn(productId);
+        when(stockLevel.getAvailableStock()).thenReturn(7);
+        when(productRepository.reserveStock(eq(productId), eq(3), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stockLevel));
+
+        // Act
+        StockLevelDTO result = productService.reserveStock(productId, 3);
+
+        // Assert
+        assertEquals(productId, result.getProductId());
+        assertEquals(7, result.getAvailableStock());
+        verify(productEventOutboxService).record(eq(ProductEventType.PRODUCT_STOCK_CHANGED), any(ProductDTO.class));
+        verify(productRepository, never()).findById(any());
     }
 
     @Test
-    void getAllProducts_ShouldReturnListOfProductDTOs() {
+    void reserveStock_WhenCachedVersionPrecedesChange_ShouldPatchCachedStock() {
         // Arrange
-        when(productRepository.findAll()).thenReturn(List.of(product));
+        inTransaction();
+        Cache cache = productsCache();
+        cache.put(productId, new VersionedProduct(storedProductDTO, 5));
+        StockLevel reserved = stockLevel(6, 7);
+        when(productRepository.reserveStock(eq(productId), eq(3), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(reserved));
+
+        // Act
+        productService.reserveStock(productId, 3);
+
+        // Assert
+        VersionedProduct cached = cache.get(productId, VersionedProduct.class);
+        assertEquals(6, cached.version());
+        assertEquals(7, cached.product().getAvailableStock());
+        assertEquals("Test Product", cached.product().getName());
+    }
+
+    @Test
+    void reserveStock_WhenStockCommitsArriveOutOfOrder_ShouldNotCacheOlderStock() {
+        // Arrange
+        inTransaction();
+        Cache cache = productsCache();
+        cache.put(productId, new VersionedProduct(storedProductDTO, 5));
+        StockLevel later = stockLevel(7, 8);
+        StockLevel earlier = stockLevel(6, 9);
+        when(productRepository.reserveStock(eq(productId), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(later), Optional.of(earlier));
+
+        // Act
+        productService.reserveStock(productId, 1);
+        productService.reserveStock(productId, 1);
+
+        // Assert
+        assertNull(cache.get(productId));
+    }
+
+    @Test
+    void reserveStock_WhenNotEnoughStock_ShouldThrowInsufficientStockException() {
+        // Arrange
+        inTransaction();
+        when(productRepository.reserveStock(eq(productId), eq(30), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById(productId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(productId, 30));
+        verify(productEventOutboxService, never()).record(any(ProductEventType.class), any(ProductDTO.class));
+    }
+
+    @Test
+    void reserveStock_WhenProductDoesNotExist_ShouldThrowProductNotFoundException() {
+        // Arrange
+        inTransaction();
+        when(productRepository.reserveStock(eq(productId), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById(productId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ProductNotFoundException.class, () -> productService.reserveStock(productId, 1));
+    }
+
+    @Test
+    void reserveStock_WhenProductIsHot_ShouldUseInMemoryCounterWithoutTransaction() {
+        // Arrange
+        when(hotStockService.isHot(productId)).thenReturn(true);
+        when(hotStockService.reserve(productId, 2)).thenReturn(StockLevelDTO.builder()
+                .productId(productId)
+                .availableStock(8)
+                .build());
+
+        // Act
+        StockLevelDTO result = productService.reserveStock(productId, 2);
+
+        // Assert
+        assertEquals(8, result.getAvailableStock());
+        verify(transactionTemplate, never()).execute(any());
+        verify(productRepository, never()).reserveStock(any(), any(Integer.class), any());
+    }
+
+    @Test
+    void getProductById_WhenProductIsHot_ShouldReturnLiveStock() {
+        // Arrange
+        when(productRepository.findVersionedProductById(productId))
+                .thenReturn(Optional.of(new VersionedProduct(storedProductDTO, 0)));
+        when(hotStockService.isHot(productId)).thenReturn(true);
+        when(hotStockService.withLiveStock(any(ProductDTO.class)))
+                .thenAnswer(invocation -> invocation.<ProductDTO>getArgument(0).toBuilder().availableStock(3).build());
+
+        // Act
+        ProductDTO result = productService.getProductById(productId);
+
+        // Assert
+        assertEquals(3, result.getAvailableStock());
+    }
+
+    @Test
+    void getProducts_WithoutCursor_ShouldReturnFirstPage() {
+        // Arrange
+        when(productRepository.findProductDTOs(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(storedProductDTO));
         
         // Act
-        List<ProductDTO> result = productService.getAllProducts();
+        ProductPageDTO result = productService.getProducts(new ProductSearchCriteria(), null, 10);
         
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(productId, result.get(0).getProductId());
+        assertEquals(1, result.getProducts().size());
+        assertEquals(productId, result.getProducts().get(0).getProductId());
+        assertNull(result.getNextCursor());
+        
+        verify(productRepository, times(1)).findProductDTOs(any(Specification.class), any(Sort.class), anyInt());
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void getProducts_WhenMoreRowsThanLimit_ShouldReturnCursorForNextPage() {
+        // Arrange
+        List<ProductDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(ProductDTO.builder()
+                    .productId(UUID.randomUUID())
+                    .name("Product " + i)
+                    .category("Test Category")
+                    .price(new BigDecimal("9.99"))
+                    .availableStock(1)
+                    .lastUpdated(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(i))
+                    .build());
+        }
+        when(productRepository.findProductDTOs(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(rows)
+                .thenReturn(List.of(rows.get(2)));
+        ProductSearchCriteria criteria = new ProductSearchCriteria().withSort("price,desc");
+        
+        // Act
+        ProductPageDTO firstPage = productService.getProducts(criteria, null, 2);
+        ProductPageDTO secondPage = productService.getProducts(criteria, firstPage.getNextCursor(), 2);
+        
+        // Assert
+        assertEquals(2, firstPage.getProducts().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(1, secondPage.getProducts().size());
+        assertEquals(rows.get(2).getProductId(), secondPage.getProducts().get(0).getProductId());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getProducts_WithCursorFromAnotherSortOrder_ShouldThrowInvalidRequestException() {
+        // Arrange
+        when(productRepository.findProductDTOs(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(storedProductDTO, storedProductDTO));
+        String priceCursor = productService.getProducts(new ProductSearchCriteria().withSort("price"), null, 1).getNextCursor();
+        
+        // Act & Assert
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProducts(new ProductSearchCriteria().withSort("name"), priceCursor, 1));
+    }
+
+    @Test
+    void getProducts_WithMalformedCursor_ShouldThrowInvalidRequestException() {
+        // Act & Assert
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProducts(new ProductSearchCriteria(), "not-a-cursor", 10));
         
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, never()).findProductDTOs(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    void streamAllProducts_ShouldPassEachProductToConsumer() {
+        // Arrange
+        when(productRepository.streamAllProductDTOs()).thenReturn(Stream.of(storedProductDTO));
+        List<ProductDTO> received = new ArrayList<>();
+        
+        // Act
+        productService.streamAllProducts(received::add);
+        
+        // Assert
+        assertEquals(1, received.size());
+        assertEquals(productId, received.get(0).getProductId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createProducts_ShouldPersistEachChunkInItsOwnTransaction() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(saved -> saved.setProductId(UUID.randomUUID()));
+            return products;
+        });
+        
+        // Act
+        BatchResultDTO result = productService.createProducts(List.of(productDTO, productDTO, productDTO));
+        
+        // Assert
+        assertEquals(3, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getResults().stream().allMatch(item -> item.getStatus() == BatchItemResultDTO.Status.CREATED));
+        
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productEventOutboxService, times(3)).record(eq(ProductEventType.PRODUCT_CREATED), any(ProductDTO.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createProducts_WhenChunkFailsToCommit_ShouldReportItsItemsAsFailed() {
+        // Arrange
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new IllegalStateException("duplicate key"))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        BatchResultDTO result = productService.createProducts(List.of(productDTO, productDTO, productDTO));
+        
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals(BatchItemResultDTO.Status.FAILED, result.getResults().get(0).getStatus());
+        assertEquals(List.of("duplicate key"), result.getResults().get(1).getErrors());
+        assertEquals(BatchItemResultDTO.Status.CREATED, result.getResults().get(2).getStatus());
+    }
+
+    @Test
+    void createProducts_WhenChunkFailsWithoutMessage_ShouldReportExceptionType() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenThrow(new NullPointerException());
+
+        // Act
+        BatchResultDTO result = productService.createProducts(List.of(productDTO));
+
+        // Assert
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of("NullPointerException"), result.getResults().get(0).getErrors());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateProducts_ShouldLoadChunkInOneQueryAndReportMissingProducts() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
+        ProductDTO existing = ProductDTO.builder()
+                .productId(productId)
+                .name("Renamed Product")
+                .category("Test Category")
+                .price(new BigDecimal("99.99"))
+                .availableStock(5)
+                .build();
+        ProductDTO missing = ProductDTO.builder()
+                .productId(UUID.randomUUID())
+                .name("Missing Product")
+                .category("Test Category")
+                .price(new BigDecimal("99.99"))
+                .availableStock(5)
+                .build();
+        
+        // Act
+        BatchResultDTO result = productService.updateProducts(List.of(existing, missing));
+        
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchItemResultDTO.Status.UPDATED, result.getResults().get(0).getStatus());
+        assertEquals(BatchItemResultDTO.Status.FAILED, result.getResults().get(1).getStatus());
+        assertEquals("Renamed Product", product.getName());
+        
+        verify(productRepository, times(1)).findAllById(anySet());
+        verify(productRepository, never()).findById(any());
+        verify(productEventOutboxService, times(1)).recordChanges(any(ProductDTO.class),
+                eq(Set.of("name", "description", "availableStock")), any(), any());
+    }
+
+    @Test
+    void importProducts_ShouldMergeEachChunkAndRecordItsEvents() {
+        // Arrange
+        inTransaction();
+        ProductImportResult created = new ProductImportResult(UUID.randomUUID(), "Lamp", null, "Lighting",
+                new BigDecimal("10.00"), 1, 0L, LocalDateTime.now(), true, true, false, true, true, true);
+        ProductImportResult updated = new ProductImportResult(productId, "Bulb", null, "Lighting",
+                new BigDecimal("2.00"), 3, 3L, LocalDateTime.now(), false, false, false, false, true, false);
+        when(productRepository.mergeImport(anyList(), any()))
+                .thenReturn(List.of(created))
+                .thenReturn(List.of(updated));
+        InputStream csv = csv("""
+                name,category,price,availableStock
+                Lamp,Lighting,10.00,1
+                Broken,Lighting,abc,1
+                Shade,Lighting,5.00,2
+                Bulb,Lighting,2.00,3
+                """);
+
+        // Act
+        ProductImportResultDTO result = productService.importProducts(csv, ProductFileFormat.CSV);
+
+        // Assert
+        assertEquals(4, result.getRecords());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getRejections().get(0).getLine());
+        assertEquals(List.of("Invalid price: abc"), result.getRejections().get(0).getErrors());
+
+        verify(productRepository, times(2)).mergeImport(anyList(), any());
+        verify(productEventOutboxService, times(1)).record(eq(ProductEventType.PRODUCT_CREATED), any(ProductDTO.class));
+        verify(productEventOutboxService, times(1)).recordChanges(any(ProductDTO.class), eq(Set.of("price")),
+                eq(3L), any());
+    }
+
+    @Test
+    void importProducts_WhenChunkFailsToCommit_ShouldRejectItsRecords() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("connection reset"));
+        InputStream csv = csv("""
+                name,category,price,availableStock
+                Lamp,Lighting,10.00,1
+                Shade,Lighting,5.00,2
+                """);
+
+        // Act
+        ProductImportResultDTO result = productService.importProducts(csv, ProductFileFormat.CSV);
+
+        // Assert
+        assertEquals(2, result.getRecords());
+        assertEquals(0, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of("connection reset"), result.getRejections().get(1).getErrors());
+        verify(productEventOutboxService, never()).record(any(ProductEventType.class), any(ProductDTO.class));
+    }
+
+    @Test
+    void exportProducts_AsCsv_ShouldWriteHeaderAndQuoteFieldsThatNeedIt() {
+        // Arrange
+        ReflectionTestUtils.setField(productService, "exportFetchSize", 100);
+        ProductDTO quoted = storedProductDTO.toBuilder()
+                .description("Bright, \"dimmable\"\nlamp")
+                .build();
+        ProductDTO withoutDescription = storedProductDTO.toBuilder()
+                .description(null)
+                .build();
+        when(productRepository.streamProductDTOs(any(Specification.class), any(Sort.class), eq(100)))
+                .thenReturn(Stream.of(quoted, withoutDescription));
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder().category("Test Category").build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long exported = productService.exportProducts(criteria, ProductFileFormat.CSV, output);
+
+        // Assert
+        assertEquals(2, exported);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("productId,name,description,category,price,availableStock,lastUpdated", lines[0]);
+        assertEquals(productId + ",Test Product,\"Bright, \"\"dimmable\"\"\nlamp\",Test Category,99.99,10,"
+                + storedProductDTO.getLastUpdated(), lines[1]);
+        assertEquals(productId + ",Test Product,,Test Category,99.99,10," + storedProductDTO.getLastUpdated(),
+                lines[2]);
+        verify(productRepository).streamProductDTOs(any(Specification.class),
+                eq(Sort.by(Sort.Direction.ASC, "lastUpdated", "productId")), eq(100));
+    }
+
+    @Test
+    void importProducts_WhenChunkFailsWithoutMessage_ShouldRejectOnlyThatChunk() {
+        // Arrange
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new NullPointerException())
+                .thenReturn(List.of());
+        InputStream csv = csv("""
+                name,category,price,availableStock
+                Lamp,Lighting,10.00,1
+                Shade,Lighting,5.00,2
+                Bulb,Lighting,2.00,3
+                """);
+
+        // Act
+        ProductImportResultDTO result = productService.importProducts(csv, ProductFileFormat.CSV);
+
+        // Assert
+        assertEquals(3, result.getRecords());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of("NullPointerException"), result.getRejections().get(0).getErrors());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private StockLevel stockLevel(long version, int availableStock) {
+        StockLevel stockLevel = mock(StockLevel.class);
+        when(stockLevel.getProductId()).thenReturn(productId);
+        when(stockLevel.getAvailableStock()).thenReturn(availableStock);
+        when(stockLevel.getVersion()).thenReturn(version);
+        when(stockLevel.getLastUpdated()).thenReturn(LocalDateTime.now());
+        return stockLevel;
+    }
+
+    private Cache productsCache() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTS_CACHE);
+        Cache cache = caffeineCacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        when(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE)).thenReturn(cache);
+        return cache;
+    }
+
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
     }
 }
@@ -0,0 +1,140 @@
+package com.harji.productcatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import com.harji.productcatalog.service.impl.ProtobufEventSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProtobufEventSerializerTest {
+
+    private final ProtobufEventSerializer serializer = new ProtobufEventSerializer();
+
+    @Test
+    void serialize_ShouldRoundTripEvent() {
+        // Arrange
+        ProductEventDTO event = event("Wireless Headphones – noise cancelling", new BigDecimal("249.99"), 1250);
+
+        // Act
+        ProductEventDTO decoded = serializer.deserialize(serializer.serialize(event));
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void serialize_ShouldKeepZeroStockButOmitMissingFields() {
+        // Arrange
+        ProductEventDTO event = ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_STOCK_CHANGED)
+                .product(ProductDTO.builder().productId(UUID.randomUUID()).availableStock(0).build())
+                .build();
+
+        // Act
+        ProductEventDTO decoded = serializer.deserialize(serializer.serialize(event));
+
+        // Assert
+        assertEquals(0, decoded.getProduct().getAvailableStock());
+        assertNull(decoded.getProduct().getName());
+        assertNull(decoded.getProduct().getPrice());
+        assertNull(decoded.getTimestamp());
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void serialize_ShouldRoundTripDeltaEvent() {
+        // Arrange
+        ProductEventDTO event = ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(LocalDateTime.of(2025, 4, 23, 12, 0))
+                .product(ProductDTO.builder()
+                        .productId(UUID.randomUUID())
+                        .availableStock(7)
+                        .lastUpdated(LocalDateTime.of(2025, 4, 23, 11, 59))
+                        .build())
+                .changedFields(List.of("description", "availableStock"))
+                .version(12L)
+                .build();
+
+        // Act
+        ProductEventDTO decoded = serializer.deserialize(serializer.serialize(event));
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void serialize_ShouldWriteFieldsInProtoSchemaOrder() throws Exception {
+        // Arrange
+        ProductEventDTO event = event("Desk Lamp", new BigDecimal("19.90"), 3);
+
+        // Act
+        CodedInputStream input = CodedInputStream.newInstance(serializer.serialize(event));
+
+        // Assert
+        List<Integer> fields = new ArrayList<>();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            fields.add(WireFormat.getTagFieldNumber(tag));
+            input.skipField(tag);
+        }
+        assertEquals(List.of(1, 2, 3), fields);
+    }
+
+    @Test
+    void serialize_ShouldBeLessThanHalfTheSizeOfJson() {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        EventSerializer json = new JsonEventSerializer(objectMapper);
+        ProductEventDTO event = event("Wireless Noise Cancelling Headphones", new BigDecimal("249.99"), 1250);
+
+        // Act
+        int protobufSize = serializer.serialize(event).length;
+        int jsonSize = json.serialize(event).length;
+
+        // Assert
+        assertTrue(protobufSize * 2 < jsonSize, "protobuf " + protobufSize + " bytes, json " + jsonSize + " bytes");
+    }
+
+    @Test
+    void deserialize_WhenPayloadIsTruncated_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        byte[] payload = serializer.serialize(event("Desk Lamp", new BigDecimal("19.90"), 3));
+        byte[] truncated = Arrays.copyOf(payload, payload.length - 5);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> serializer.deserialize(truncated));
+    }
+
+    private ProductEventDTO event(String name, BigDecimal price, int stock) {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 4, 23, 12, 0, 0, 123_456_000);
+        return ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .timestamp(timestamp)
+                .product(ProductDTO.builder()
+                        .productId(UUID.randomUUID())
+                        .name(name)
+                        .description("Over-ear headphones with a 30 hour battery")
+                        .category("Electronics")
+                        .price(price)
+                        .availableStock(stock)
+                        .lastUpdated(timestamp.minusMinutes(5))
+                        .build())
+                .build();
+    }
+}
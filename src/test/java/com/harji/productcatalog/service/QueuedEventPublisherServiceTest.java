@@ -0,0 +1,163 @@
+package com.harji.productcatalog.service;
+
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.exception.EventPublishRejectedException;
+import com.harji.productcatalog.service.impl.QueuedEventPublisherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueuedEventPublisherServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ProductEventDTO> published = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private QueuedEventPublisherService publisher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        publisher.destroy();
+    }
+
+    @Test
+    void publishProductEventAsync_ShouldCompleteOncePublishedInOrder() throws Exception {
+        // Arrange
+        release.countDown();
+        publisher = publisher("block", 10);
+        UUID productId = UUID.randomUUID();
+
+        // Act
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            acks.add(publisher.publishProductEventAsync(event(productId, i)));
+        }
+        CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(5, published.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, published.get(i).getProduct().getAvailableStock());
+        }
+        assertEquals(5.0, meterRegistry.get("product.events.published")
+                .tags("publisher", "default", "type", "PRODUCT_UPDATED", "outcome", "success").counter().count());
+        assertTrue(meterRegistry.get("product.events.publish").tag("outcome", "success").timer().count() > 0);
+    }
+
+    @Test
+    void publishProductEventAsync_WithFailFastPolicy_ShouldRejectWhenQueueIsFull() throws Exception {
+        // Arrange
+        publisher = publisher("fail-fast", 1);
+        UUID productId = UUID.randomUUID();
+        publisher.publishProductEventAsync(event(productId, 0));
+        awaitQueueDepth(0);
+        publisher.publishProductEventAsync(event(productId, 1));
+
+        // Act
+        CompletableFuture<Void> rejected = publisher.publishProductEventAsync(event(productId, 2));
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(EventPublishRejectedException.class, failure.getCause());
+        assertEquals(1.0, meterRegistry.get("product.events.publish.rejected").tag("reason", "rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("product.events.publish.queue.depth").gauge().value());
+    }
+
+    @Test
+    void publishProductEventAsync_WithDropOldestPolicy_ShouldDropOldestQueuedEvent() throws Exception {
+        // Arrange
+        publisher = publisher("drop-oldest", 1);
+        UUID productId = UUID.randomUUID();
+        publisher.publishProductEventAsync(event(productId, 0));
+        awaitQueueDepth(0);
+        CompletableFuture<Void> oldest = publisher.publishProductEventAsync(event(productId, 1));
+
+        // Act
+        CompletableFuture<Void> newest = publisher.publishProductEventAsync(event(productId, 2));
+        release.countDown();
+
+        // Assert
+        assertThrows(ExecutionException.class, () -> oldest.get(1, TimeUnit.SECONDS));
+        newest.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(0, 2), published.stream().map(e -> e.getProduct().getAvailableStock()).toList());
+    }
+
+    @Test
+    void publishProductEventAsync_WhenDelegateFails_ShouldCompleteExceptionally() {
+        // Arrange
+        publisher = new QueuedEventPublisherService(events -> {
+            throw new IllegalStateException("broker unavailable");
+        }, meterRegistry, Executors.defaultThreadFactory(), 1, 10, "block", 1000, 10);
+
+        // Act
+        CompletableFuture<Void> ack = publisher.publishProductEventAsync(event(UUID.randomUUID(), 0));
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> ack.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    @Test
+    void publishProductEventAsync_WhenDelegateFails_ShouldCountFailedEvent() {
+        // Arrange
+        publisher = new QueuedEventPublisherService(events -> {
+            throw new IllegalStateException("broker unavailable");
+        }, meterRegistry, Executors.defaultThreadFactory(), 1, 10, "block", 1000, 10);
+        CompletableFuture<Void> ack = publisher.publishProductEventAsync(event(UUID.randomUUID(), 0));
+
+        // Act
+        assertThrows(ExecutionException.class, () -> ack.get(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("product.events.published")
+                .tags("type", "PRODUCT_UPDATED", "outcome", "failure").counter().count());
+    }
+
+    /**
+     * A single-threaded publisher whose delegate holds every batch until {@link #release} opens.
+     */
+    private QueuedEventPublisherService publisher(String policy, int capacity) {
+        EventPublisherService delegate = new EventPublisherService() {
+            @Override
+            public void publishProductEvents(List<ProductEventDTO> events) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                published.addAll(events);
+            }
+        };
+        return new QueuedEventPublisherService(
+                delegate, meterRegistry, Executors.defaultThreadFactory(), 1, capacity, policy, 1000, 10);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (publisher.getQueueDepth() != depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, publisher.getQueueDepth());
+    }
+
+    private ProductEventDTO event(UUID productId, int sequence) {
+        return ProductEventDTO.builder()
+                .eventType(ProductEventType.PRODUCT_UPDATED)
+                .product(ProductDTO.builder().productId(productId).availableStock(sequence).build())
+                .build();
+    }
+}
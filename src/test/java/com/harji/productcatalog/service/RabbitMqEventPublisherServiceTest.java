@@ -0,0 +1,191 @@
+package com.harji.productcatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.harji.productcatalog.domain.ProductEventType;
+import com.harji.productcatalog.dto.ProductDTO;
+import com.harji.productcatalog.dto.ProductEventDTO;
+import com.harji.productcatalog.service.impl.JsonEventSerializer;
+import com.harji.productcatalog.service.impl.RabbitMqEventPublisherService;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmCallback;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RabbitMqEventPublisherServiceTest {
+
+    private InProcessBroker broker;
+    private RabbitMqEventPublisherService publisher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        broker = new InProcessBroker();
+        publisher = new RabbitMqEventPublisherService(broker.connectionFactory(), new JsonEventSerializer(objectMapper), "product-events", 2, 500, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        broker.shutdown();
+    }
+
+    @Test
+    void publishProductEvents_ShouldPublishWholeBatchBeforeWaitingForConfirms() {
+        // Act
+        publisher.publishProductEvents(events(1000));
+
+        // Assert
+        assertEquals(1000, broker.delivered.get());
+        assertEquals(1, broker.channelsCreated.get());
+    }
+
+    @Test
+    void publishProductEvents_WhenBrokerNacksMessages_ShouldRepublishFromFirstNackedMessageInOrder() {
+        // Arrange
+        broker.nack = publishCount -> publishCount == 10 || publishCount == 50;
+
+        // Act
+        publisher.publishProductEvents(events(100));
+
+        // Assert
+        assertEquals(191, broker.published.get());
+        List<String> retried = broker.bodies.subList(100, 191);
+        for (int i = 0; i < retried.size(); i++) {
+            assertTrue(retried.get(i).contains("\"name\":\"Product " + (i + 9) + "\""), retried.get(i));
+        }
+    }
+
+    @Test
+    void publishProductEvents_WhenMessagesAreNeverConfirmed_ShouldFailAfterMaxAttempts() {
+        // Arrange
+        broker.nack = publishCount -> true;
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> publisher.publishProductEvents(events(5)));
+        assertEquals(15, broker.published.get());
+    }
+
+    @Test
+    void publishProductEvents_FromConcurrentCallers_ShouldReusePooledChannels() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        // Act
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                calls.add(executor.submit(() -> publisher.publishProductEvents(events(50))));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(1500, broker.delivered.get());
+        assertTrue(broker.channelsCreated.get() <= 2);
+    }
+
+    private List<ProductEventDTO> events(int count) {
+        List<ProductEventDTO> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(ProductEventDTO.builder()
+                    .eventType(ProductEventType.PRODUCT_CREATED)
+                    .product(ProductDTO.builder().productId(UUID.randomUUID()).name("Product " + i).build())
+                    .build());
+        }
+        return events;
+    }
+
+    /**
+     * Stand-in for a RabbitMQ broker: channels assign publish sequence numbers and confirm asynchronously
+     * on a separate thread, acknowledging several messages at once like a real broker does.
+     */
+    private static class InProcessBroker {
+
+        private final ExecutorService confirmThread = Executors.newSingleThreadExecutor();
+        private final AtomicInteger channelsCreated = new AtomicInteger();
+        private final AtomicInteger published = new AtomicInteger();
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        // Tested against the running count of published messages
+        private volatile LongPredicate nack = publishCount -> false;
+
+        ConnectionFactory connectionFactory() throws Exception {
+            Connection connection = mock(Connection.class);
+            when(connection.isOpen()).thenReturn(true);
+            when(connection.createChannel()).thenAnswer(invocation -> channel());
+
+            ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+            when(connectionFactory.newConnection(anyString())).thenReturn(connection);
+            return connectionFactory;
+        }
+
+        void shutdown() {
+            confirmThread.shutdownNow();
+        }
+
+        private Channel channel() throws Exception {
+            channelsCreated.incrementAndGet();
+            AtomicLong nextSequenceNumber = new AtomicLong(1);
+            ConfirmCallback[] callbacks = new ConfirmCallback[2];
+
+            Channel channel = mock(Channel.class);
+            when(channel.isOpen()).thenReturn(true);
+            when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> nextSequenceNumber.get());
+            doAnswer(invocation -> {
+                callbacks[0] = invocation.getArgument(0);
+                callbacks[1] = invocation.getArgument(1);
+                return null;
+            }).when(channel).addConfirmListener(any(ConfirmCallback.class), any(ConfirmCallback.class));
+            doAnswer(invocation -> {
+                long sequenceNumber = nextSequenceNumber.getAndIncrement();
+                bodies.add(new String(invocation.<byte[]>getArgument(3), StandardCharsets.UTF_8));
+                boolean nacked = nack.test(published.incrementAndGet());
+                // Batch acks: confirm every 25th message together with everything before it
+                confirmThread.execute(() -> {
+                    try {
+                        if (nacked) {
+                            callbacks[1].handle(sequenceNumber, false);
+                        } else {
+                            delivered.incrementAndGet();
+                            if (sequenceNumber % 25 == 0) {
+                                callbacks[0].handle(sequenceNumber, true);
+                            } else {
+                                callbacks[0].handle(sequenceNumber, false);
+                            }
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                return null;
+            }).when(channel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), any(byte[].class));
+            return channel;
+        }
+    }
+}
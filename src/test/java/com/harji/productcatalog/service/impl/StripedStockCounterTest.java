@@ -0,0 +1,94 @@
+package com.harji.productcatalog.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 5000;
+
+    @Test
+    void tryTake_UnderConcurrency_ShouldMostlyTakeFromOwnStripe() throws Exception {
+        // Arrange
+        StripedStockCounter counter = new StripedStockCounter(THREADS, 2L * THREADS * RESERVATIONS_PER_THREAD, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(() -> {
+                int taken = 0;
+                for (int j = 0; j < RESERVATIONS_PER_THREAD; j++) {
+                    if (counter.tryTake(1)) {
+                        taken++;
+                    }
+                }
+                return taken;
+            });
+        }
+
+        // Act
+        int taken = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(workers)) {
+                taken += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(THREADS * RESERVATIONS_PER_THREAD, taken);
+        assertEquals(THREADS * RESERVATIONS_PER_THREAD, counter.sum());
+        // Threads whose ids share a stripe drain it and gather a few times; everyone else never leaves their stripe
+        assertTrue(counter.gatherCount() < taken / 100, "gathered " + counter.gatherCount() + " times");
+    }
+
+    @Test
+    void reset_ShouldSpreadStockSoEveryStripeCanServeReservations() {
+        // Arrange
+        StripedStockCounter counter = new StripedStockCounter(4, 0, 0);
+
+        // Act
+        counter.reset(16);
+
+        // Assert
+        AtomicInteger taken = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                if (counter.tryTake(1)) {
+                    taken.incrementAndGet();
+                }
+            });
+            thread.start();
+            assertDoesNotThrow(() -> thread.join());
+        }
+        assertEquals(4, taken.get());
+        assertEquals(0, counter.gatherCount());
+        assertEquals(12, counter.sum());
+    }
+
+    @Test
+    void tryTake_WhenOwnStripeRunsDry_ShouldGatherAndRefillIt() {
+        // Arrange
+        StripedStockCounter counter = new StripedStockCounter(4, 40, 0);
+
+        // Act
+        assertTrue(counter.tryTake(15));
+        assertTrue(counter.tryTake(5));
+
+        // Assert
+        assertEquals(1, counter.gatherCount());
+        assertEquals(20, counter.sum());
+        assertFalse(counter.tryTake(21));
+        assertEquals(20, counter.sum());
+    }
+}